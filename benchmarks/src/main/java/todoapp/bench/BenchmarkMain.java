@@ -0,0 +1,35 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+
+// Executa os benchmarks com as opções normais do JMH e grava sempre o resultado
+// em JSON (jmh-results/<data>.json, ou o arquivo passado em -rff) para
+// acompanhar a evolução entre versões.
+public class BenchmarkMain {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions cmd = new CommandLineOptions(args);
+
+        String result;
+        if (cmd.getResult().hasValue()) {
+            result = cmd.getResult().get();
+        } else {
+            new File("jmh-results").mkdirs();
+            result = "jmh-results/" + new SimpleDateFormat("yyyyMMdd-HHmmss").format(new Date()) + ".json";
+        }
+
+        new Runner(new OptionsBuilder()
+                .parent(cmd)
+                .resultFormat(ResultFormatType.JSON)
+                .result(result)
+                .build()).run();
+    }
+}
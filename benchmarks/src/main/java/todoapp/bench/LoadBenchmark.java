@@ -0,0 +1,62 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import todoapp.HistoryStore;
+import todoapp.TaskList;
+import todoapp.TaskRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Inicialização: mapear o histórico, carregar o motor (snapshot + diário)
+// e montar o TaskList por cima dele
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class LoadBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private File dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = SyntheticHistory.create(tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        SyntheticHistory.delete(dir);
+    }
+
+    @Benchmark
+    public void decodeHistory(Blackhole blackhole) throws IOException {
+        HistoryStore history = HistoryStore.open(new File(dir, "tasks_history.bin"));
+        for (int i = 0; i < history.size(); i++) {
+            blackhole.consume(history.description(i));
+            blackhole.consume(history.tags(i));
+            blackhole.consume(history.createdAt(i));
+            blackhole.consume(history.isCompleted(i));
+        }
+    }
+
+    @Benchmark
+    public int loadRepository() {
+        TaskRepository repository = new TaskRepository(dir);
+        repository.load();
+        repository.shutdown();
+        return repository.rowCount();
+    }
+
+    @Benchmark
+    public int loadTaskList() {
+        TaskList taskList = new TaskList(progress -> { }, dir);
+        taskList.shutdown();
+        return taskList.getTotalTasks();
+    }
+}
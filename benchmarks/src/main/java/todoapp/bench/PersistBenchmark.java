@@ -0,0 +1,58 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import todoapp.HistoryStore;
+import todoapp.TaskJournal;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Persistência: montar um snapshot completo e gravar um lote de registros no diário
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class PersistBenchmark {
+    private static final int JOURNAL_BATCH = 100;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private File dir;
+    private TaskJournal journal;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = Files.createTempDirectory("todoapp-bench").toFile();
+        // Limite alto: o benchmark do diário não deve disparar compactação
+        journal = new TaskJournal(new File(dir, "tasks_history.journal").getPath(),
+                new File(dir, "tasks_history.bin").getPath(), new File(dir, "tasks_history.idx").getPath(),
+                new File(dir, "tasks.txt").getPath(),
+                Integer.MAX_VALUE, 0);
+        journal.readRecords(tasks);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        journal.close();
+        SyntheticHistory.delete(dir);
+    }
+
+    @Benchmark
+    public byte[] buildSnapshot() {
+        return SyntheticHistory.build(tasks).toByteArray();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(JOURNAL_BATCH)
+    public void appendJournalBatch() {
+        for (int i = 0; i < JOURNAL_BATCH; i++) {
+            journal.append("T;" + (i % tasks) + ";true;" + System.currentTimeMillis());
+        }
+        journal.flushNow();
+    }
+}
@@ -0,0 +1,56 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import todoapp.TaskRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Consultas sobre o histórico carregado: filtro por tags/prioridade (TagIndex)
+// e busca textual (SearchIndex)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class QueryBenchmark {
+    private static final int SEARCH_LIMIT = 500;
+
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private File dir;
+    private TaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = SyntheticHistory.create(tasks);
+        repository = new TaskRepository(dir);
+        repository.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.shutdown();
+        SyntheticHistory.delete(dir);
+    }
+
+    @Benchmark
+    public BitSet filterByTagsAndPriority() {
+        return repository.query(List.of("trabalho", "urgente"), 1);
+    }
+
+    @Benchmark
+    public int[] searchExactWord() {
+        return repository.search("reunião", SEARCH_LIMIT);
+    }
+
+    @Benchmark
+    public int[] searchPrefixes() {
+        return repository.search("rel cli", SEARCH_LIMIT);
+    }
+}
@@ -0,0 +1,137 @@
+package todoapp.bench;
+
+import todoapp.Recurrence;
+import todoapp.ReminderScheduler;
+
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// Teste de carga do agendador de lembretes (fora do JMH: mede atraso real dos
+// disparos, memória e threads com dezenas de milhares de agendamentos):
+//
+//   java -cp benchmarks/target/benchmarks.jar todoapp.bench.ReminderLoadTest \
+//        [--items 50000] [--seconds 5]
+//
+// Espalha os disparos pelos próximos --seconds, cancela 10% e confere que cada
+// um dos outros disparou exatamente uma vez, em ordem de horário, com uma só
+// thread a mais. Também mede o custo de Recurrence.next() para regras variadas.
+// Sai com código 1 se alguma verificação falhar.
+public class ReminderLoadTest {
+    private static final String[] RULES = {
+            "diario 09:00", "semanal seg,qua,sex 08:30", "cron */15 9-18 * * 1-5", "cron 0 0 13 * 5", "cron 30 7 1 */3 *"
+    };
+
+    public static void main(String[] args) throws Exception {
+        int items = intOption(args, "--items", 50_000);
+        int seconds = intOption(args, "--seconds", 5);
+        ZoneId zone = ZoneId.systemDefault();
+
+        // Próximo disparo de regras variadas, como no start() de uma lista grande
+        Recurrence[] rules = new Recurrence[RULES.length];
+        for (int i = 0; i < RULES.length; i++) {
+            rules[i] = Recurrence.parse(RULES[i], zone);
+        }
+        long sink = 0;
+        long start = System.nanoTime();
+        long base = System.currentTimeMillis();
+        for (int i = 0; i < items; i++) {
+            sink += rules[i % rules.length].next(base + i * 60_000L, zone);
+        }
+        double nextNanos = (System.nanoTime() - start) / (double) items;
+
+        ReminderScheduler.Handle[] handles = new ReminderScheduler.Handle[items];
+        AtomicIntegerArray fired = new AtomicIntegerArray(items);
+        long[] lateness = new long[items];
+        boolean[] cancelled = new boolean[items];
+        int threadsBefore = Thread.activeCount();
+        long heapBefore = usedHeap();
+        ReminderScheduler scheduler = new ReminderScheduler();
+        AtomicInteger firedCount = new AtomicInteger();
+        AtomicInteger outOfOrder = new AtomicInteger();
+        long[] lastAt = {Long.MIN_VALUE}; // Só a thread do agendador mexe
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long firstAt = System.currentTimeMillis() + 500; // Dá tempo de agendar tudo antes do primeiro
+        int expected = 0;
+        CountDownLatch done = new CountDownLatch(1);
+        for (int i = 0; i < items; i++) {
+            int id = i;
+            long at = firstAt + random.nextLong(seconds * 1000L);
+            handles[i] = scheduler.schedule(at, () -> {
+                lateness[id] = System.currentTimeMillis() - at;
+                if (at < lastAt[0]) outOfOrder.incrementAndGet();
+                lastAt[0] = at;
+                fired.incrementAndGet(id);
+                firedCount.incrementAndGet();
+            });
+        }
+        long scheduleNanos = System.nanoTime();
+        for (int i = 0; i < items; i += 10) {
+            cancelled[i] = scheduler.cancel(handles[i]);
+        }
+        scheduleNanos = System.nanoTime() - scheduleNanos;
+        long heapAfter = usedHeap();
+        int threadsDuring = Thread.activeCount();
+        for (boolean c : cancelled) {
+            if (!c) expected++;
+        }
+        // Marca o fim com um disparo depois de todos
+        scheduler.schedule(firstAt + seconds * 1000L + 1, done::countDown);
+        boolean finished = done.await(seconds + 30, TimeUnit.SECONDS);
+        scheduler.shutdown();
+
+        int failures = 0;
+        if (!finished) {
+            System.out.println("FALHA: o último disparo não aconteceu");
+            failures++;
+        }
+        for (int i = 0; i < items; i++) {
+            if (fired.get(i) != (cancelled[i] ? 0 : 1)) {
+                if (failures++ < 10) System.out.println("FALHA: item " + i + " disparou " + fired.get(i) + " vezes");
+            }
+        }
+        if (outOfOrder.get() > 0) {
+            System.out.println("FALHA: " + outOfOrder.get() + " disparos fora de ordem");
+            failures++;
+        }
+        long[] late = new long[firedCount.get()];
+        int n = 0;
+        for (int i = 0; i < items && n < late.length; i++) {
+            if (!cancelled[i]) late[n++] = lateness[i];
+        }
+        Arrays.sort(late);
+
+        System.out.printf("Recurrence.next(): %.0f ns por regra (%d)%n", nextNanos, sink & 1);
+        System.out.printf("%d agendados (%d cancelados em %.1f ms), %d disparos em %d s; threads %d -> %d%n",
+                items, items - expected, scheduleNanos / 1e6, firedCount.get(), seconds, threadsBefore, threadsDuring);
+        System.out.printf("~%d bytes por agendamento (com a ação)%n", Math.max(0, heapAfter - heapBefore) / items);
+        if (late.length > 0) {
+            System.out.printf("atraso p50 %d ms, p99 %d ms, máx %d ms%n",
+                    late[late.length / 2], late[Math.min(late.length - 1, (int) (late.length * 0.99))], late[late.length - 1]);
+        }
+        if (failures > 0) {
+            System.out.println(failures + " falhas");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private static int intOption(String[] args, String name, int fallback) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return Integer.parseInt(args[i + 1]);
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,93 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import todoapp.TaskList;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+// Pintura de uma célula da lista principal sem monitor, do mesmo jeito que o
+// BasicListUI faz: renderer + CellRendererPane desenhando numa imagem.
+// Uma "tela" são as 20 linhas visíveis da janela padrão (600 px / 30 px).
+// scrollScreen() faz o caminho inteiro de uma rolagem: move a viewport e
+// repinta a lista com o JScrollPane, como a janela faria a cada quadro.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class RenderBenchmark {
+    private static final int WIDTH = 660;
+    private static final int ROW_HEIGHT = 30;
+    private static final int VISIBLE_ROWS = 20;
+
+    @Param({"1000", "100000", "1000000"})
+    public int tasks;
+
+    private File dir;
+    private TaskList taskList;
+    private JList<String> list;
+    private ListCellRenderer<? super String> renderer;
+    private CellRendererPane rendererPane;
+    private BufferedImage image;
+    private Graphics2D graphics;
+    private int firstRow;
+    private JScrollPane scrollPane;
+    private BufferedImage screen;
+    private Graphics2D screenGraphics;
+    private int scrollRow;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = SyntheticHistory.create(tasks);
+        taskList = new TaskList(progress -> { }, dir);
+        list = taskList.getList();
+        renderer = list.getCellRenderer();
+        rendererPane = new CellRendererPane();
+        image = new BufferedImage(WIDTH, ROW_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+
+        scrollPane = new JScrollPane(list);
+        scrollPane.setSize(WIDTH, ROW_HEIGHT * VISIBLE_ROWS);
+        scrollPane.doLayout();
+        scrollPane.getViewport().doLayout();
+        screen = new BufferedImage(WIDTH, ROW_HEIGHT * VISIBLE_ROWS, BufferedImage.TYPE_INT_ARGB);
+        screenGraphics = screen.createGraphics();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        graphics.dispose();
+        screenGraphics.dispose();
+        taskList.shutdown();
+        SyntheticHistory.delete(dir);
+    }
+
+    // Simula uma rolagem: cada invocação pinta a próxima tela de linhas
+    @Benchmark
+    @OperationsPerInvocation(VISIBLE_ROWS)
+    public void paintScreen() {
+        ListModel<String> model = list.getModel();
+        for (int i = 0; i < VISIBLE_ROWS; i++) {
+            int row = (firstRow + i) % model.getSize();
+            Component cell = renderer.getListCellRendererComponent(list, model.getElementAt(row), row, false, false);
+            rendererPane.paintComponent(graphics, cell, list, 0, 0, WIDTH, ROW_HEIGHT, true);
+        }
+        firstRow = (firstRow + VISIBLE_ROWS) % model.getSize();
+    }
+
+    // Rola uma tela para baixo (volta ao topo no fim) e repinta tudo
+    @Benchmark
+    @OperationsPerInvocation(VISIBLE_ROWS)
+    public void scrollScreen() {
+        int rows = list.getModel().getSize();
+        scrollRow = scrollRow + VISIBLE_ROWS < rows ? scrollRow + VISIBLE_ROWS : 0;
+        scrollPane.getViewport().setViewPosition(new Point(0, scrollRow * ROW_HEIGHT));
+        scrollPane.paint(screenGraphics);
+    }
+}
@@ -0,0 +1,45 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import todoapp.TaskStore;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Arrastar uma tarefa para outra posição: só o array de ordem é deslocado
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+public class ReorderBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private TaskStore store;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        store = new TaskStore();
+        for (int i = 0; i < tasks; i++) {
+            store.add("tarefa " + i, "", 2, i, false, TaskStore.NO_DATE);
+        }
+        store.showAll();
+    }
+
+    @Benchmark
+    public int moveRandomRow() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(tasks);
+        int to = random.nextInt(tasks);
+        store.moveRow(from, to);
+        return store.idAt(to);
+    }
+
+    @Benchmark
+    public int moveToTop() {
+        store.moveRow(tasks - 1, 0);
+        return store.idAt(0);
+    }
+}
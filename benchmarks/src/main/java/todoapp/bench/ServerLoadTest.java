@@ -0,0 +1,143 @@
+package todoapp.bench;
+
+import todoapp.TaskRepository;
+import todoapp.TaskServer;
+
+import java.io.File;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Teste de carga da API HTTP (não é JMH: mede vazão e latência de ponta a
+// ponta com muitos clientes simultâneos). Sem --url, sobe um TaskServer numa
+// pasta temporária com um histórico sintético.
+//
+//   java -cp benchmarks/target/benchmarks.jar todoapp.bench.ServerLoadTest \
+//        [--clients 64] [--seconds 10] [--tasks 10000] [--url http://127.0.0.1:8080]
+//
+// Cada cliente é uma thread virtual que repete: 60% GET /tasks, 25% POST /tasks,
+// 10% toggle, 5% busca.
+public class ServerLoadTest {
+    public static void main(String[] args) throws Exception {
+        int clients = intOption(args, "--clients", 64);
+        int seconds = intOption(args, "--seconds", 10);
+        int tasks = intOption(args, "--tasks", 10_000);
+        String url = option(args, "--url", null);
+
+        File dir = null;
+        ExecutorService repositoryThread = null;
+        TaskRepository repository = null;
+        TaskServer server = null;
+        if (url == null) {
+            dir = SyntheticHistory.create(tasks);
+            repositoryThread = Executors.newSingleThreadExecutor();
+            repository = new TaskRepository(dir);
+            repositoryThread.submit(repository::load).get();
+            server = new TaskServer(repository, repositoryThread, 0);
+            server.start();
+            url = "http://127.0.0.1:" + server.port();
+        }
+
+        HttpClient client = HttpClient.newBuilder().executor(Executors.newVirtualThreadPerTaskExecutor()).build();
+        // Aquecimento curto para o JIT e as conexões
+        run(client, url, clients, 2, tasks);
+        Result result = run(client, url, clients, seconds, tasks);
+        result.print(seconds);
+
+        if (server != null) {
+            server.stop();
+            repositoryThread.submit(repository::shutdown).get();
+            repositoryThread.shutdown();
+            SyntheticHistory.delete(dir);
+        }
+    }
+
+    private static Result run(HttpClient client, String url, int clients, int seconds, int tasks)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(seconds);
+        Result result = new Result();
+        try (ExecutorService threads = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int c = 0; c < clients; c++) {
+                int seed = c;
+                threads.submit(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    long[] latencies = new long[1 << 16];
+                    int count = 0;
+                    while (System.nanoTime() < deadline) {
+                        HttpRequest request = request(url, random.nextInt(100), random.nextInt(Math.max(tasks, 1)), seed);
+                        long start = System.nanoTime();
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            if (status >= 400 && status != 404) result.errors.incrementAndGet();
+                        } catch (Exception e) {
+                            result.errors.incrementAndGet();
+                        }
+                        if (count == latencies.length) latencies = Arrays.copyOf(latencies, count * 2);
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    result.add(Arrays.copyOf(latencies, count));
+                    return null;
+                });
+            }
+        }
+        return result;
+    }
+
+    private static HttpRequest request(String url, int kind, int id, int client) {
+        if (kind < 60) {
+            return HttpRequest.newBuilder(URI.create(url + "/tasks?offset=" + (id % 1000) + "&limit=20")).GET().build();
+        } else if (kind < 85) {
+            String body = "{\"description\":\"carga " + client + "-" + id + "\",\"tags\":\"carga\",\"priority\":2}";
+            return HttpRequest.newBuilder(URI.create(url + "/tasks"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        } else if (kind < 95) {
+            return HttpRequest.newBuilder(URI.create(url + "/tasks/" + id + "/toggle"))
+                    .POST(HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return HttpRequest.newBuilder(URI.create(url + "/search?q=cliente&limit=20")).GET().build();
+    }
+
+    private static final class Result {
+        final AtomicInteger errors = new AtomicInteger();
+        final List<long[]> latencies = new ArrayList<>();
+
+        synchronized void add(long[] clientLatencies) {
+            latencies.add(clientLatencies);
+        }
+
+        void print(int seconds) {
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            if (all.length == 0) {
+                System.out.println("Nenhuma requisição concluída");
+                return;
+            }
+            System.out.printf("%d requisições em %d s: %.0f req/s, %d erros%n",
+                    all.length, seconds, all.length / (double) seconds, errors.get());
+            System.out.printf("latência p50 %.2f ms, p99 %.2f ms, máx %.2f ms%n",
+                    percentile(all, 0.50), percentile(all, 0.99), all[all.length - 1] / 1e6);
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+        }
+    }
+
+    private static String option(String[] args, String name, String fallback) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return args[i + 1];
+        }
+        return fallback;
+    }
+
+    private static int intOption(String[] args, String name, int fallback) {
+        String value = option(args, name, null);
+        return value != null ? Integer.parseInt(value) : fallback;
+    }
+}
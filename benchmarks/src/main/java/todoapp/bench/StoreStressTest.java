@@ -0,0 +1,254 @@
+package todoapp.bench;
+
+import todoapp.TaskRepository;
+import todoapp.TaskView;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Teste de estresse do TaskRepository com várias threads escrevendo (adicionar,
+// marcar, reordenar) e várias lendo os TaskView publicados sem trava:
+//
+//   java -cp benchmarks/target/benchmarks.jar todoapp.bench.StoreStressTest \
+//        [--writers 4] [--readers 4] [--ops 20000]
+//
+// Verifica que cada retrato lido é consistente (a ordem é uma permutação das
+// tarefas, a contagem de concluídas bate), que retratos antigos nunca mudam,
+// que os avisos saem na mesma ordem das publicações, que cada thread vê as
+// próprias tarefas em ordem de chamada e que o estado final (também depois de
+// reabrir do disco) é o que a soma das operações manda. Sai com código 1 se
+// alguma verificação falhar.
+public class StoreStressTest {
+    private static final int INITIAL_TASKS = 200;
+
+    private static final AtomicLong failures = new AtomicLong();
+
+    public static void main(String[] args) throws Exception {
+        int writers = intOption(args, "--writers", 4);
+        int readers = intOption(args, "--readers", 4);
+        int ops = intOption(args, "--ops", 20_000);
+
+        File dir = Files.createTempDirectory("todoapp-stress").toFile();
+        TaskRepository repository = new TaskRepository(dir);
+        repository.load();
+        for (int i = 0; i < INITIAL_TASKS; i++) {
+            repository.addTask("inicial " + i, "", 2);
+        }
+
+        // Os avisos chegam com o repositório travado: o view() tem que bater com a soma deles
+        AtomicInteger expectedRows = new AtomicInteger(repository.rowCount());
+        repository.addListener(new TaskRepository.Listener() {
+            @Override
+            public void rowsAdded(int from, int to) {
+                check(from == expectedRows.get(), "aviso de linhas fora de ordem");
+                check(repository.view().rowCount() == expectedRows.addAndGet(to - from + 1),
+                        "view() diferente do aviso de inclusão");
+            }
+
+            @Override
+            public void rowChanged(int row) {
+                check(row < repository.view().rowCount(), "aviso de linha inexistente");
+            }
+
+            @Override
+            public void rowMoved(int from, int to) {
+                check(repository.view().rowCount() == expectedRows.get(), "view() diferente no aviso de movimento");
+            }
+
+            @Override
+            public void rowRemoved(int row) {
+                fail("nenhuma linha deveria ser removida");
+            }
+
+            @Override
+            public void rowsReset(int previousSize) {
+                fail("nenhum reset deveria acontecer");
+            }
+        });
+
+        int maxTasks = INITIAL_TASKS + writers * ops;
+        AtomicIntegerArray toggles = new AtomicIntegerArray(maxTasks); // Marcações aplicadas por ID
+        AtomicBoolean done = new AtomicBoolean();
+        AtomicLong viewsChecked = new AtomicLong();
+
+        ExecutorService threads = Executors.newFixedThreadPool(writers + readers, r -> {
+            Thread thread = new Thread(r);
+            thread.setDaemon(true); // Uma falha não pode deixar leitores rodando para sempre
+            return thread;
+        });
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> writerFutures = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            int writer = w;
+            writerFutures.add(threads.submit(() -> {
+                start.await();
+                write(repository, writer, ops, toggles);
+                return null;
+            }));
+        }
+        List<Future<?>> readerFutures = new ArrayList<>();
+        for (int r = 0; r < readers; r++) {
+            readerFutures.add(threads.submit(() -> {
+                start.await();
+                read(repository, writers, done, viewsChecked);
+                return null;
+            }));
+        }
+
+        long startNanos = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : writerFutures) {
+            await(future);
+        }
+        long writeNanos = System.nanoTime() - startNanos;
+        done.set(true);
+        for (Future<?> future : readerFutures) {
+            await(future);
+        }
+        threads.shutdown();
+
+        TaskView last = repository.view();
+        verifyFinal(last, toggles, writers, ops);
+        repository.shutdown();
+
+        // O que foi para o diário tem que reproduzir o mesmo histórico
+        TaskRepository reopened = new TaskRepository(dir);
+        reopened.load();
+        TaskView reloaded = reopened.view();
+        check(reloaded.size() == last.size(), "tamanho diferente depois de reabrir");
+        for (int id = 0; id < Math.min(reloaded.size(), last.size()); id++) {
+            check(reloaded.description(id).equals(last.description(id))
+                    && reloaded.isCompleted(id) == last.isCompleted(id), "tarefa " + id + " diferente depois de reabrir");
+        }
+        reopened.shutdown();
+        SyntheticHistory.delete(dir);
+
+        System.out.printf("%d escritores x %d operações em %.0f ms (%.0f op/s), %d retratos verificados por %d leitores%n",
+                writers, ops, writeNanos / 1e6, writers * (double) ops / (writeNanos / 1e9), viewsChecked.get(), readers);
+        if (failures.get() > 0) {
+            System.out.println(failures.get() + " falhas");
+            System.exit(1);
+        }
+        System.out.println("OK");
+    }
+
+    // 40% adiciona, 40% marca uma tarefa ao acaso, 20% move uma linha
+    private static void write(TaskRepository repository, int writer, int ops, AtomicIntegerArray toggles) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int added = 0;
+        for (int i = 0; i < ops; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 4) {
+                repository.addTask("w" + writer + " " + added++, "t" + writer, 1 + writer % 3);
+            } else if (kind < 8) {
+                int id = random.nextInt(repository.view().size());
+                synchronized (repository) {
+                    int row = repository.rowOf(id);
+                    check(row >= 0, "tarefa " + id + " sumiu da lista");
+                    repository.toggle(row);
+                    toggles.incrementAndGet(id);
+                }
+            } else {
+                int rows = repository.rowCount();
+                repository.moveRow(random.nextInt(rows), random.nextInt(rows));
+            }
+        }
+    }
+
+    private static void read(TaskRepository repository, int writers, AtomicBoolean done, AtomicLong viewsChecked) {
+        TaskView kept = repository.view();
+        long keptHash = hash(kept);
+        int lastSize = 0;
+        long checked = 0;
+        while (!done.get()) {
+            TaskView view = repository.view();
+            check(view.size() >= lastSize, "o histórico encolheu");
+            lastSize = view.size();
+            verifyView(view, writers);
+            checked++;
+
+            // Um retrato antigo nunca pode mudar, por mais que se escreva depois
+            if (checked % 16 == 0) {
+                check(hash(kept) == keptHash, "retrato antigo foi alterado");
+                kept = view;
+                keptHash = hash(kept);
+            }
+        }
+        check(hash(kept) == keptHash, "retrato antigo foi alterado");
+        viewsChecked.addAndGet(checked);
+    }
+
+    private static void verifyView(TaskView view, int writers) {
+        check(view.rowCount() == view.size(), "linhas e tarefas não batem (nada é removido)");
+        BitSet seen = new BitSet(view.size());
+        int completed = 0;
+        for (int row = 0; row < view.rowCount(); row++) {
+            int id = view.idAt(row);
+            check(id >= 0 && id < view.size() && !seen.get(id), "a ordem não é uma permutação (linha " + row + ")");
+            seen.set(id);
+            if (view.isCompleted(id)) completed++;
+        }
+        check(completed == view.completedRowCount(), "contagem de concluídas não bate");
+
+        // As tarefas de cada escritor aparecem com IDs crescentes, na ordem das chamadas
+        int[] next = new int[writers];
+        for (int id = INITIAL_TASKS; id < view.size(); id++) {
+            String[] parts = view.description(id).split(" ");
+            int writer = Integer.parseInt(parts[0].substring(1));
+            check(Integer.parseInt(parts[1]) == next[writer]++, "tarefas de w" + writer + " fora de ordem");
+        }
+    }
+
+    private static void verifyFinal(TaskView view, AtomicIntegerArray toggles, int writers, int ops) {
+        verifyView(view, writers);
+        for (int id = 0; id < view.size(); id++) {
+            check(view.isCompleted(id) == (toggles.get(id) % 2 == 1), "tarefa " + id + " com marcação errada");
+        }
+        check(view.size() <= INITIAL_TASKS + writers * ops, "tarefas demais");
+    }
+
+    // Exceção numa thread (ex.: índice fora do retrato) conta como falha
+    private static void await(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            fail("exceção: " + e.getCause());
+        }
+    }
+
+    private static long hash(TaskView view) {
+        long h = view.size() * 31L + view.rowCount();
+        for (int row = 0; row < view.rowCount(); row++) {
+            int id = view.idAt(row);
+            h = h * 31 + id;
+            h = h * 31 + (view.isCompleted(id) ? 1 : 0);
+            h = h * 31 + view.description(id).hashCode();
+        }
+        return h * 31 + view.completedRowCount();
+    }
+
+    private static void check(boolean condition, String message) {
+        if (!condition) fail(message);
+    }
+
+    private static void fail(String message) {
+        if (failures.incrementAndGet() <= 10) {
+            System.err.println("FALHA: " + message);
+        }
+    }
+
+    private static int intOption(String[] args, String name, int fallback) {
+        for (int i = 0; i + 1 < args.length; i++) {
+            if (args[i].equals(name)) return Integer.parseInt(args[i + 1]);
+        }
+        return fallback;
+    }
+}
@@ -0,0 +1,66 @@
+package todoapp.bench;
+
+import todoapp.HistoryStore;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+
+// Gera históricos sintéticos no formato binário, numa pasta temporária,
+// com a mesma distribuição para todas as execuções (semente fixa).
+final class SyntheticHistory {
+    private static final String[] WORDS = {
+            "revisar", "relatório", "ligar", "cliente", "comprar", "pão", "estudar", "java",
+            "enviar", "email", "pagar", "conta", "agendar", "reunião", "limpar", "casa"
+    };
+    private static final String[] TAGS = {"trabalho", "casa", "estudo", "saúde", "finanças", "urgente"};
+    private static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+
+    private SyntheticHistory() {
+    }
+
+    static File create(int tasks) throws IOException {
+        File dir = Files.createTempDirectory("todoapp-bench").toFile();
+        Files.write(new File(dir, "tasks_history.bin").toPath(), build(tasks).toByteArray());
+        return dir;
+    }
+
+    static HistoryStore.Builder build(int tasks) {
+        Random random = new Random(42);
+        HistoryStore.Builder builder = new HistoryStore.Builder();
+        long start = System.currentTimeMillis() - 3 * 365 * DAY_MILLIS; // ~3 anos de histórico
+        for (int i = 0; i < tasks; i++) {
+            long created = start + (long) i * (3 * 365 * DAY_MILLIS / Math.max(tasks, 1));
+            boolean completed = random.nextInt(10) < 3;
+            long completedAt = completed ? created + random.nextInt((int) DAY_MILLIS) : HistoryStore.NO_DATE;
+            builder.add(description(random), completed, created, completedAt, tags(random), 1 + random.nextInt(3));
+        }
+        return builder;
+    }
+
+    private static String description(Random random) {
+        return WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)]
+                + " #" + random.nextInt(1000);
+    }
+
+    private static String tags(Random random) {
+        int count = random.nextInt(3);
+        StringBuilder tags = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) tags.append(',');
+            tags.append(TAGS[random.nextInt(TAGS.length)]);
+        }
+        return tags.toString();
+    }
+
+    static void delete(File dir) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,45 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import todoapp.TaskRepository;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+// Clique no checkbox direto no motor (sem Swing): alteração do estado,
+// contagem de concluídas e registro no diário (inclui as compactações periódicas, amortizadas)
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class ToggleBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int tasks;
+
+    private File dir;
+    private TaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        dir = SyntheticHistory.create(tasks);
+        repository = new TaskRepository(dir);
+        repository.load();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        repository.shutdown();
+        SyntheticHistory.delete(dir);
+    }
+
+    @Benchmark
+    public int toggle() {
+        int row = ThreadLocalRandom.current().nextInt(repository.rowCount());
+        repository.toggle(row);
+        return repository.completedRowCount();
+    }
+}
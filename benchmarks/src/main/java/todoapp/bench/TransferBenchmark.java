@@ -0,0 +1,71 @@
+package todoapp.bench;
+
+import org.openjdk.jmh.annotations.*;
+import todoapp.TaskRepository;
+import todoapp.TaskStore;
+import todoapp.TaskTransfer;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+// Importação em lote de um arquivo JSON Lines num repositório vazio e
+// exportação do histórico inteiro
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Djava.awt.headless=true", "-Xmx4g"})
+public class TransferBenchmark {
+    @Param({"10000", "100000", "500000"})
+    public int tasks;
+
+    private String exported;
+    private File sourceDir;
+    private TaskRepository source;
+    private File dir;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        sourceDir = SyntheticHistory.create(tasks);
+        source = new TaskRepository(sourceDir);
+        source.load();
+        StringWriter writer = new StringWriter();
+        TaskTransfer.write(source.history(), source.history().size(), writer, TaskTransfer.Format.JSON_LINES);
+        exported = writer.toString();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        source.shutdown();
+        SyntheticHistory.delete(sourceDir);
+    }
+
+    @Setup(Level.Invocation)
+    public void createTarget() throws IOException {
+        dir = Files.createTempDirectory("todoapp-bench").toFile();
+    }
+
+    @TearDown(Level.Invocation)
+    public void deleteTarget() {
+        SyntheticHistory.delete(dir);
+    }
+
+    @Benchmark
+    public int importJsonLines() throws Exception {
+        TaskRepository repository = new TaskRepository(dir);
+        repository.load();
+        int count = TaskTransfer.importInto(repository, new StringReader(exported), TaskTransfer.Format.JSON_LINES);
+        repository.shutdown();
+        return count;
+    }
+
+    @Benchmark
+    public int exportJsonLines() throws IOException {
+        TaskStore history = source.history();
+        try (Writer writer = new BufferedWriter(new FileWriter(new File(dir, "export.jsonl")))) {
+            return TaskTransfer.write(history, history.size(), writer, TaskTransfer.Format.JSON_LINES);
+        }
+    }
+}
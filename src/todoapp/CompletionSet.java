@@ -0,0 +1,66 @@
+package todoapp;
+
+import java.util.Arrays;
+
+// Quais tarefas estão concluídas, indexado pelo ID: um bit por tarefa mais a
+// data de conclusão num long[]. Consultar não aloca nada (o renderer chama
+// isso para cada célula pintada) e a contagem é mantida a cada alteração.
+public class CompletionSet {
+    private long[] words;
+    private long[] completedAt;
+    private int count;
+
+    public CompletionSet(int capacity) {
+        words = new long[wordIndex(capacity - 1) + 1];
+        completedAt = new long[capacity];
+        Arrays.fill(completedAt, TaskStore.NO_DATE);
+    }
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= completedAt.length) return;
+
+        int newCapacity = Math.max(capacity, completedAt.length * 2);
+        int oldLength = completedAt.length;
+        completedAt = Arrays.copyOf(completedAt, newCapacity);
+        Arrays.fill(completedAt, oldLength, newCapacity, TaskStore.NO_DATE);
+        words = Arrays.copyOf(words, wordIndex(newCapacity - 1) + 1);
+    }
+
+    public boolean contains(int id) {
+        return (words[wordIndex(id)] & (1L << id)) != 0;
+    }
+
+    public long completedAt(int id) {
+        return completedAt[id];
+    }
+
+    // Devolve true se a tarefa não estava concluída
+    public boolean add(int id, long time) {
+        completedAt[id] = time;
+        int w = wordIndex(id);
+        long mask = 1L << id;
+        if ((words[w] & mask) != 0) return false;
+        words[w] |= mask;
+        count++;
+        return true;
+    }
+
+    // Devolve true se a tarefa estava concluída
+    public boolean remove(int id) {
+        completedAt[id] = TaskStore.NO_DATE;
+        int w = wordIndex(id);
+        long mask = 1L << id;
+        if ((words[w] & mask) == 0) return false;
+        words[w] &= ~mask;
+        count--;
+        return true;
+    }
+
+    public int count() {
+        return count;
+    }
+
+    private static int wordIndex(int id) {
+        return id >>> 6;
+    }
+}
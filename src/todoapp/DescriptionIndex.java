@@ -0,0 +1,66 @@
+package todoapp;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+// Descrição (sem diferenciar maiúsculas) -> IDs das tarefas com ela, para o
+// "Excluir" pelo texto digitado achar a tarefa sem percorrer a lista. Quase
+// toda descrição é única, então cada entrada é um array pequeno e ordenado.
+public class DescriptionIndex {
+    private static final int[] NONE = new int[0];
+
+    private final Map<String, int[]> ids = new HashMap<>();
+
+    public void add(int id, String description) {
+        ids.merge(key(description), new int[]{id}, DescriptionIndex::union);
+    }
+
+    public void update(int id, String oldDescription, String newDescription) {
+        String oldKey = key(oldDescription);
+        if (oldKey.equals(key(newDescription))) return;
+
+        int[] old = ids.get(oldKey);
+        if (old != null) {
+            int pos = Arrays.binarySearch(old, id);
+            if (pos >= 0) {
+                if (old.length == 1) {
+                    ids.remove(oldKey);
+                } else {
+                    int[] rest = new int[old.length - 1];
+                    System.arraycopy(old, 0, rest, 0, pos);
+                    System.arraycopy(old, pos + 1, rest, pos, rest.length - pos);
+                    ids.put(oldKey, rest);
+                }
+            }
+        }
+        add(id, newDescription);
+    }
+
+    // IDs em ordem crescente (a mais antiga primeiro); não alterar o array
+    public int[] find(String description) {
+        return ids.getOrDefault(key(description), NONE);
+    }
+
+    private static String key(String description) {
+        return description.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int[] union(int[] current, int[] added) {
+        int id = added[0];
+        if (current[current.length - 1] < id) { // Caso comum: ID novo é o maior
+            int[] result = Arrays.copyOf(current, current.length + 1);
+            result[current.length] = id;
+            return result;
+        }
+        int pos = Arrays.binarySearch(current, id);
+        if (pos >= 0) return current;
+        pos = -pos - 1;
+        int[] result = new int[current.length + 1];
+        System.arraycopy(current, 0, result, 0, pos);
+        result[pos] = id;
+        System.arraycopy(current, pos, result, pos + 1, current.length - pos);
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+package todoapp;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.File;
+
+// Janela "Diagnóstico": tempos e contadores do Metrics e os últimos erros,
+// atualizados a cada segundo enquanto a janela está aberta
+public class DiagnosticsWindow {
+    private static final int REFRESH_MS = 1000;
+
+    private final JFrame frame;
+    private final JTextArea textArea = new JTextArea();
+    private final Timer refresher = new Timer(REFRESH_MS, e -> refresh());
+
+    public DiagnosticsWindow() {
+        frame = new JFrame("Diagnóstico");
+        frame.setSize(720, 560);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                refresher.stop();
+            }
+        });
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(new Color(248, 200, 97)); // Mesmo fundo de "Ver todas" e "Estatísticas"
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        textArea.setEditable(false);
+        textArea.setFont(new Font(Font.MONOSPACED, Font.PLAIN, 13)); // Colunas alinhadas
+        textArea.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        JScrollPane scrollPane = new JScrollPane(textArea);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+
+        JButton saveButton = new JButton("Salvar em arquivo");
+        saveButton.addActionListener(e -> save());
+
+        JButton closeButton = new JButton("FECHAR");
+        closeButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        closeButton.setForeground(Color.WHITE);
+        closeButton.setBackground(new Color(20, 20, 20));
+        closeButton.setFocusPainted(false);
+        closeButton.setBorder(BorderFactory.createEmptyBorder(8, 25, 8, 25));
+        closeButton.addActionListener(e -> frame.dispose());
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(saveButton);
+        buttonPanel.add(closeButton);
+
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        frame.add(panel);
+        refresh();
+    }
+
+    public void show() {
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+        refresher.start();
+    }
+
+    private void refresh() {
+        int caret = textArea.getCaretPosition();
+        String report = Metrics.report();
+        textArea.setText(report);
+        textArea.setCaretPosition(Math.min(caret, report.length()));
+    }
+
+    private void save() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("diagnostico.txt"));
+        if (chooser.showSaveDialog(frame) != JFileChooser.APPROVE_OPTION) return;
+        if (!Metrics.dump(chooser.getSelectedFile())) {
+            JOptionPane.showMessageDialog(frame, "Não foi possível salvar o arquivo.", "Erro", JOptionPane.ERROR_MESSAGE);
+        }
+    }
+}
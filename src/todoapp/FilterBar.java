@@ -0,0 +1,64 @@
+package todoapp;
+
+import javax.swing.*;
+import java.awt.*;
+
+// Barra de filtro acima da lista: tags (todas precisam estar na tarefa) e
+// prioridade filtram a lista; a busca procura em todo o histórico
+public class FilterBar extends JPanel {
+    private final TaskList taskList;
+    private final JTextField tagsInput = new JTextField(10);
+    private final JTextField searchInput = new JTextField(12);
+    private final JComboBox<String> priorityBox =
+            new JComboBox<>(new String[]{"Todas", "1 (Alta)", "2 (Média)", "3 (Baixa)"});
+
+    public FilterBar(TaskList taskList) {
+        this.taskList = taskList;
+        setLayout(new FlowLayout(FlowLayout.LEFT, 8, 4));
+        setBackground(new Color(128, 52, 7));
+
+        JLabel tagsLabel = new JLabel("Tags:");
+        tagsLabel.setForeground(Color.WHITE);
+        tagsInput.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        tagsInput.setToolTipText("Tags separadas por vírgula");
+        tagsInput.addActionListener(e -> apply()); // Filtra ao pressionar Enter
+
+        JLabel priorityLabel = new JLabel("Prioridade:");
+        priorityLabel.setForeground(Color.WHITE);
+        priorityBox.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        priorityBox.addActionListener(e -> apply());
+
+        JButton clearButton = new JButton("Limpar");
+        clearButton.setFocusPainted(false);
+        clearButton.addActionListener(e -> {
+            tagsInput.setText("");
+            priorityBox.setSelectedIndex(0);
+            apply();
+        });
+
+        add(tagsLabel);
+        add(tagsInput);
+        add(priorityLabel);
+        add(priorityBox);
+        add(clearButton);
+
+        JLabel searchLabel = new JLabel("Buscar:");
+        searchLabel.setForeground(Color.WHITE);
+        searchInput.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        searchInput.setToolTipText("Palavras da descrição ou das tags, em todo o histórico");
+        searchInput.addActionListener(e -> {
+            if (!searchInput.getText().trim().isEmpty()) {
+                taskList.searchHistory(searchInput.getText());
+            }
+        });
+
+        add(searchLabel);
+        add(searchInput);
+    }
+
+    private void apply() {
+        int selected = priorityBox.getSelectedIndex();
+        int priority = selected == 0 ? TagIndex.ANY_PRIORITY : selected; // "1 (Alta)" está no índice 1
+        taskList.applyFilter(tagsInput.getText(), priority);
+    }
+}
@@ -0,0 +1,343 @@
+package todoapp;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.*;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+// Histórico já fechado pelo "Finalizar dia": um segmento por dia, imutável e
+// compactado (gzip do formato do HistoryStore), com o índice de busca e as
+// estatísticas ao lado.
+// O manifesto (segments.txt) lista os segmentos em ordem; cada linha é
+// "arquivo;quantidade;checksum".
+//
+// Abrir o arquivo só lê o manifesto. Um segmento só é descompactado quando
+// alguém lê uma tarefa dele (ex.: a página do "Ver todas" que chegou nele), e
+// os mais recentes ficam em cache.
+//
+// A busca usa um único índice do arquivo inteiro em memória, com posições
+// globais: uma consulta não passa por todos os segmentos, só abre os das
+// tarefas que forem exibidas. Ele é montado uma vez, fora da EDT
+// (prepareSearch), a partir dos .idx de cada dia, e depois só recebe o dia
+// recém-fechado; fechar um dia não regrava nada além dos arquivos do dia.
+//
+// As posições são globais: o primeiro segmento começa em 0 e cada um continua
+// onde o anterior parou. Leituras podem vir de qualquer thread.
+public class HistoryArchive implements TaskHistory {
+    private static final String MANIFEST = "segments.txt";
+    private static final String SEGMENT_SUFFIX = ".seg.gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final String STATS_SUFFIX = ".stats";
+    private static final int CACHED_SEGMENTS = 4;
+
+    private final File dir;
+    private final List<Segment> segments = new ArrayList<>();
+    private int[] bases = new int[0]; // Posição global da primeira tarefa de cada segmento
+    private int size;
+    private TaskStats stats; // Soma das estatísticas dos segmentos, montada na primeira consulta
+    private SearchIndex searchIndex; // Índice de todos os segmentos, montado por prepareSearch()
+    // Segmentos descompactados, do menos para o mais recente usado
+    private final LinkedHashMap<Segment, HistoryStore> cache = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Segment, HistoryStore> eldest) {
+            return size() > CACHED_SEGMENTS;
+        }
+    };
+
+    private static final class Segment {
+        final String name;
+        final int count;
+        final long checksum;
+
+        Segment(String name, int count, long checksum) {
+            this.name = name;
+            this.count = count;
+            this.checksum = checksum;
+        }
+    }
+
+    private HistoryArchive(File dir) {
+        this.dir = dir;
+    }
+
+    public static HistoryArchive open(File dir) {
+        HistoryArchive archive = new HistoryArchive(dir);
+        File manifest = new File(dir, MANIFEST);
+        if (!manifest.exists()) return archive;
+
+        try (BufferedReader reader = new BufferedReader(new FileReader(manifest, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] parts = line.split(";");
+                if (parts.length < 3) {
+                    System.err.println("Linha malformada no manifesto do arquivo: " + line);
+                    continue;
+                }
+                archive.append(new Segment(parts[0], Integer.parseInt(parts[1]), Long.parseLong(parts[2])));
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Erro ao ler o manifesto do arquivo: " + e.getMessage());
+            e.printStackTrace();
+        }
+        return archive;
+    }
+
+    // Nome do próximo segmento: a data de hoje (com sufixo se o dia já foi fechado antes)
+    public synchronized String nextSegmentName() {
+        String base = LocalDate.now().toString();
+        String name = base;
+        for (int n = 2; contains(name); n++) {
+            name = base + "-" + n;
+        }
+        return name;
+    }
+
+    // Registra um dia recém-fechado, depois que o TaskJournal gravou os arquivos;
+    // o snapshot fica no cache, já que acabou de ser usado. Se o índice do
+    // arquivo já estiver montado, o do dia entra nele (só as tarefas do dia);
+    // senão prepareSearch() o lê do .idx que o TaskJournal acabou de gravar.
+    public synchronized void addSegment(String name, byte[] snapshot, int count, long checksum,
+                                        TaskStats segmentStats, SearchIndex segmentIndex) {
+        Segment segment = new Segment(name, count, checksum);
+        int base = size;
+        append(segment);
+        if (stats != null) {
+            stats.merge(segmentStats);
+        }
+        if (searchIndex != null) {
+            searchIndex.append(segmentIndex, base);
+        }
+        try {
+            cache.put(segment, HistoryStore.wrap(snapshot));
+        } catch (IOException e) {
+            System.err.println("Erro ao abrir o segmento " + name + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized List<String> manifestLines() {
+        List<String> lines = new ArrayList<>(segments.size());
+        for (Segment segment : segments) {
+            lines.add(manifestLine(segment.name, segment.count, segment.checksum));
+        }
+        return lines;
+    }
+
+    public static String manifestLine(String name, int count, long checksum) {
+        return name + ";" + count + ";" + checksum;
+    }
+
+    public File manifestFile() {
+        return new File(dir, MANIFEST);
+    }
+
+    public File segmentFile(String name) {
+        return new File(dir, name + SEGMENT_SUFFIX);
+    }
+
+    public File indexFile(String name) {
+        return new File(dir, name + INDEX_SUFFIX);
+    }
+
+    public File statsFile(String name) {
+        return new File(dir, name + STATS_SUFFIX);
+    }
+
+    // Checksum do último dia fechado: se o snapshot quente ainda for igual a
+    // ele, o fechamento foi interrompido antes de zerar o snapshot
+    public synchronized long lastChecksum() {
+        return segments.isEmpty() ? -1 : segments.get(segments.size() - 1).checksum;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    // Busca em todos os segmentos; as posições devolvidas já são globais. Na
+    // primeira chamada monta o índice (ver prepareSearch): fora da EDT.
+    public long[] searchScored(String query, int limit) {
+        prepareSearch();
+        synchronized (this) {
+            return searchIndex.searchScored(query, limit);
+        }
+    }
+
+    // Monta o índice do arquivo juntando os .idx dos dias (um de cada vez; um
+    // dia sem ele é reindexado a partir do segmento). A leitura é feita sem a
+    // trava do arquivo, para não parar quem lê tarefas ou fecha um dia; os dias
+    // fechados no meio tempo entram no fim.
+    public void prepareSearch() {
+        List<Segment> known;
+        int[] knownBases;
+        synchronized (this) {
+            if (searchIndex != null) return;
+            known = new ArrayList<>(segments);
+            knownBases = bases.clone();
+        }
+        SearchIndex built = new SearchIndex();
+        for (int i = 0; i < known.size(); i++) {
+            built.append(readSegmentIndex(known.get(i), knownBases[i]), knownBases[i]);
+        }
+        synchronized (this) {
+            if (searchIndex != null) return; // Outra thread montou primeiro
+            for (int i = known.size(); i < segments.size(); i++) {
+                built.append(readSegmentIndex(segments.get(i), bases[i]), bases[i]);
+            }
+            searchIndex = built;
+        }
+    }
+
+    // Estatísticas de todos os dias arquivados. Na primeira chamada lê o
+    // .stats de cada segmento (poucos bytes por dia); um segmento sem ele é
+    // percorrido uma vez e o .stats é gravado. Como isso pode descompactar
+    // segmentos, a primeira chamada deve ser feita fora da EDT. Devolve uma
+    // cópia, que quem chamou pode alterar.
+    public synchronized TaskStats stats() {
+        if (stats == null) {
+            TaskStats all = new TaskStats();
+            for (int i = 0; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                TaskStats segmentStats = TaskStats.read(statsFile(segment.name), segment.checksum);
+                if (segmentStats == null) {
+                    segmentStats = TaskStats.of(locate(bases[i]));
+                    TaskJournal.writeAtomically(statsFile(segment.name), segmentStats.toByteArray(segment.checksum));
+                }
+                all.merge(segmentStats);
+            }
+            stats = all;
+        }
+        TaskStats copy = new TaskStats();
+        copy.merge(stats);
+        return copy;
+    }
+
+    @Override
+    public String description(int index) {
+        return locate(index).description(index - baseOf(index));
+    }
+
+    @Override
+    public String tags(int index) {
+        return locate(index).tags(index - baseOf(index));
+    }
+
+    @Override
+    public int priority(int index) {
+        return locate(index).priority(index - baseOf(index));
+    }
+
+    @Override
+    public long createdAt(int index) {
+        return locate(index).createdAt(index - baseOf(index));
+    }
+
+    @Override
+    public long completedAt(int index) {
+        return locate(index).completedAt(index - baseOf(index));
+    }
+
+    @Override
+    public boolean isCompleted(int index) {
+        return locate(index).isCompleted(index - baseOf(index));
+    }
+
+    // Arquivo + tarefas do dia numa única sequência; os tamanhos são fixados
+    // aqui, então a visão pode ser lida fora da EDT enquanto o dia continua
+    public TaskHistory withActive(TaskHistory active) {
+        int archived = size();
+        int total = archived + active.size();
+        return new TaskHistory() {
+            @Override
+            public int size() {
+                return total;
+            }
+
+            @Override
+            public String description(int index) {
+                return index < archived ? HistoryArchive.this.description(index) : active.description(index - archived);
+            }
+
+            @Override
+            public String tags(int index) {
+                return index < archived ? HistoryArchive.this.tags(index) : active.tags(index - archived);
+            }
+
+            @Override
+            public int priority(int index) {
+                return index < archived ? HistoryArchive.this.priority(index) : active.priority(index - archived);
+            }
+
+            @Override
+            public long createdAt(int index) {
+                return index < archived ? HistoryArchive.this.createdAt(index) : active.createdAt(index - archived);
+            }
+
+            @Override
+            public long completedAt(int index) {
+                return index < archived ? HistoryArchive.this.completedAt(index) : active.completedAt(index - archived);
+            }
+
+            @Override
+            public boolean isCompleted(int index) {
+                return index < archived ? HistoryArchive.this.isCompleted(index) : active.isCompleted(index - archived);
+            }
+        };
+    }
+
+    // Compactação dos segmentos (usada pelo TaskJournal ao gravar)
+    static byte[] compress(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void append(Segment segment) {
+        bases = Arrays.copyOf(bases, segments.size() + 1);
+        bases[segments.size()] = size;
+        segments.add(segment);
+        size += segment.count;
+    }
+
+    private boolean contains(String name) {
+        for (Segment segment : segments) {
+            if (segment.name.equals(name)) return true;
+        }
+        return false;
+    }
+
+    private synchronized int segmentIndex(int index) {
+        // Dias vazios não são arquivados, então as bases são estritamente crescentes
+        int i = Arrays.binarySearch(bases, 0, segments.size(), index);
+        return i >= 0 ? i : -i - 2; // Segmento com a maior base <= index
+    }
+
+    private synchronized int baseOf(int index) {
+        return bases[segmentIndex(index)];
+    }
+
+    private synchronized HistoryStore locate(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Tarefa arquivada inexistente: " + index);
+        Segment segment = segments.get(segmentIndex(index));
+        HistoryStore store = cache.get(segment);
+        if (store == null) {
+            try (InputStream in = new GZIPInputStream(new FileInputStream(segmentFile(segment.name)))) {
+                store = HistoryStore.wrap(in.readAllBytes());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Erro ao abrir o segmento " + segment.name, e);
+            }
+            cache.put(segment, store);
+        }
+        return store;
+    }
+
+    // Índice gravado ao lado do segmento; se faltar ou não corresponder, é
+    // reconstruído a partir do próprio segmento
+    private SearchIndex readSegmentIndex(Segment segment, int base) {
+        SearchIndex index = SearchIndex.read(indexFile(segment.name), segment.checksum, segment.count);
+        return index != null ? index : SearchIndex.of(locate(base));
+    }
+}
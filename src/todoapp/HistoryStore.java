@@ -0,0 +1,182 @@
+package todoapp;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+// Histórico de tarefas em formato binário, lido via memory-map.
+//
+// Layout: cabeçalho (magic, versão, quantidade) seguido dos registros, cada um
+// com um cabeçalho fixo (criação, conclusão, prioridade, flags, tamanhos) e os
+// bytes UTF-8 da descrição e das tags. Ao abrir, só os cabeçalhos fixos são
+// percorridos para montar o índice de offsets; os textos são decodificados
+// apenas quando alguém pede.
+public class HistoryStore implements TaskHistory {
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private static final int MAGIC = 0x54444831; // "TDH1"
+    private static final int VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 12;
+
+    // created(8) + completed(8) + priority(4) + flags(1) + descLen(4) + tagsLen(4)
+    private static final int RECORD_HEADER_SIZE = 29;
+    private static final int OFF_CREATED = 0;
+    private static final int OFF_COMPLETED = 8;
+    private static final int OFF_PRIORITY = 16;
+    private static final int OFF_FLAGS = 20;
+    private static final int OFF_DESC_LEN = 21;
+    private static final int OFF_TAGS_LEN = 25;
+    private static final byte FLAG_COMPLETED = 1;
+
+    private final ByteBuffer buffer;
+    private final int[] offsets;
+
+    private HistoryStore(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.limit() < FILE_HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Arquivo de histórico inválido");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Versão de histórico não suportada: " + buffer.getInt(4));
+        }
+
+        int count = buffer.getInt(8);
+        offsets = new int[count];
+        int position = FILE_HEADER_SIZE;
+        for (int i = 0; i < count; i++) {
+            if (position + RECORD_HEADER_SIZE > buffer.limit()) {
+                throw new IOException("Histórico truncado no registro " + i);
+            }
+            offsets[i] = position;
+            position += RECORD_HEADER_SIZE + buffer.getInt(position + OFF_DESC_LEN) + buffer.getInt(position + OFF_TAGS_LEN);
+        }
+        if (position > buffer.limit()) {
+            throw new IOException("Histórico truncado no último registro");
+        }
+    }
+
+    public static HistoryStore open(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            // O mapeamento continua válido depois que o canal é fechado
+            return new HistoryStore(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    // Snapshot já em memória (ex.: segmento arquivado depois de descompactado)
+    public static HistoryStore wrap(byte[] data) throws IOException {
+        return new HistoryStore(ByteBuffer.wrap(data));
+    }
+
+    @Override
+    public int size() {
+        return offsets.length;
+    }
+
+    @Override
+    public long createdAt(int index) {
+        return buffer.getLong(offsets[index] + OFF_CREATED);
+    }
+
+    @Override
+    public long completedAt(int index) {
+        return buffer.getLong(offsets[index] + OFF_COMPLETED);
+    }
+
+    @Override
+    public boolean isCompleted(int index) {
+        return (buffer.get(offsets[index] + OFF_FLAGS) & FLAG_COMPLETED) != 0;
+    }
+
+    @Override
+    public int priority(int index) {
+        return buffer.getInt(offsets[index] + OFF_PRIORITY);
+    }
+
+    @Override
+    public String description(int index) {
+        int offset = offsets[index];
+        return decode(offset + RECORD_HEADER_SIZE, buffer.getInt(offset + OFF_DESC_LEN));
+    }
+
+    // Tags separadas por vírgula, como no formato de texto
+    @Override
+    public String tags(int index) {
+        int offset = offsets[index];
+        int descLength = buffer.getInt(offset + OFF_DESC_LEN);
+        return decode(offset + RECORD_HEADER_SIZE + descLength, buffer.getInt(offset + OFF_TAGS_LEN));
+    }
+
+    // CRC32 do arquivo inteiro; identifica o snapshot nos arquivos derivados dele (ex.: SearchIndex)
+    public long checksum() {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate().clear());
+        return crc.getValue();
+    }
+
+    public static long checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return crc.getValue();
+    }
+
+    private String decode(int position, int length) {
+        byte[] bytes = new byte[length];
+        buffer.get(position, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // Monta a imagem binária de um snapshot em memória; a gravação fica com o TaskJournal
+    public static class Builder {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private int count;
+
+        public Builder() {
+            try {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                out.writeInt(0); // Quantidade preenchida em toByteArray()
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        public void add(String description, boolean completed, long createdAt, long completedAt, String tags, int priority) {
+            byte[] descBytes = description.getBytes(StandardCharsets.UTF_8);
+            byte[] tagBytes = tags.getBytes(StandardCharsets.UTF_8);
+            try {
+                out.writeLong(createdAt);
+                out.writeLong(completedAt);
+                out.writeInt(priority);
+                out.writeByte(completed ? FLAG_COMPLETED : 0);
+                out.writeInt(descBytes.length);
+                out.writeInt(tagBytes.length);
+                out.write(descBytes);
+                out.write(tagBytes);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            count++;
+        }
+
+        public void addAll(TaskHistory source) {
+            for (int id = 0; id < source.size(); id++) {
+                add(source.description(id), source.isCompleted(id), source.createdAt(id),
+                        source.completedAt(id), source.tags(id), source.priority(id));
+            }
+        }
+
+        public int size() {
+            return count;
+        }
+
+        public byte[] toByteArray() {
+            byte[] data = bytes.toByteArray();
+            ByteBuffer.wrap(data).putInt(8, count);
+            return data;
+        }
+    }
+}
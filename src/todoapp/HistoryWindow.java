@@ -0,0 +1,184 @@
+package todoapp;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Style;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyledDocument;
+import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+// Janela "Todas as tarefas". O histórico é exibido em páginas: a primeira
+// aparece assim que a janela abre e as seguintes são montadas fora da EDT
+// conforme o usuário rola até o fim.
+public class HistoryWindow {
+    public interface Source {
+        int size();
+
+        String description(int index);
+
+        boolean isCompleted(int index);
+
+        long createdAt(int index);
+    }
+
+    private static final int PAGE_SIZE = 200;
+    private static final int LOAD_AHEAD_PX = 300; // Carrega a próxima página antes de chegar ao fim
+    // DateTimeFormatter é imutável e thread-safe: uma instância serve para todas as páginas
+    private static final DateTimeFormatter DATE_FORMAT =
+            DateTimeFormatter.ofPattern("EEEE, dd/MM/yyyy", new Locale("pt", "BR"));
+
+    private final Source source;
+    private final JFrame frame;
+    private final StyledDocument doc;
+    private final Style defaultStyle;
+    private final JScrollPane scrollPane;
+    private int nextIndex;
+    private boolean loading;
+
+    public HistoryWindow(Source source) {
+        this("Todas as tarefas", "Lista de tarefas:", source);
+    }
+
+    public HistoryWindow(String title, String heading, Source source) {
+        this.source = source;
+
+        frame = new JFrame(title);
+        frame.setSize(700, 600);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+
+        // Painel principal com padding
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(new Color(248, 200, 97)); // Cor de fundo amarelada
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        // Painel arredondado para o conteúdo
+        JPanel roundedPanel = new JPanel(new BorderLayout()) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                Graphics2D g2 = (Graphics2D) g.create();
+                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+                g2.setColor(getBackground());
+                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 30, 30); // Bordas arredondadas
+                g2.dispose();
+            }
+
+            @Override
+            public Insets getInsets() {
+                return new Insets(15, 15, 15, 15); // Padding interno
+            }
+        };
+        roundedPanel.setBackground(Color.WHITE);
+        roundedPanel.setOpaque(false);
+
+        // JTextPane para o conteúdo
+        JTextPane textPane = new JTextPane();
+        textPane.setEditable(false);
+        textPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
+
+        // Configurar estilos
+        doc = textPane.getStyledDocument();
+        defaultStyle = doc.addStyle("default", null);
+        StyleConstants.setFontFamily(defaultStyle, "Segoe UI Emoji");
+        StyleConstants.setFontSize(defaultStyle, 16);
+        StyleConstants.setSpaceBelow(defaultStyle, 10);
+
+        Style headerStyle = doc.addStyle("header", defaultStyle);
+        StyleConstants.setBold(headerStyle, true);
+        StyleConstants.setFontSize(headerStyle, 18);
+        StyleConstants.setAlignment(headerStyle, StyleConstants.ALIGN_CENTER);
+
+        try {
+            doc.insertString(0, heading + "\n\n", headerStyle);
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+
+        // Adicionar componentes ao painel arredondado
+        scrollPane = new JScrollPane(textPane);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder()); // Remove borda
+        scrollPane.setOpaque(false);
+        scrollPane.getViewport().setOpaque(false);
+        textPane.setBackground(Color.WHITE);
+        scrollPane.getVerticalScrollBar().addAdjustmentListener(e -> loadIfNearEnd());
+        roundedPanel.add(scrollPane, BorderLayout.CENTER);
+
+        // Botão de fechar estilizado
+        JButton closeButton = new JButton("FECHAR");
+        closeButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        closeButton.setForeground(Color.WHITE);
+        closeButton.setBackground(new Color(20, 20, 20));
+        closeButton.setFocusPainted(false);
+        closeButton.setBorder(BorderFactory.createCompoundBorder(
+                BorderFactory.createLineBorder(new Color(20, 20, 20), 1),
+                BorderFactory.createEmptyBorder(8, 25, 8, 25)
+        ));
+        closeButton.addActionListener(e -> frame.dispose());
+
+        // Painel do botão
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setBackground(new Color(248, 200, 97));
+        buttonPanel.add(closeButton);
+
+        // Adicionar componentes ao painel principal
+        panel.add(roundedPanel, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+
+        frame.add(panel);
+    }
+
+    public void show() {
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+        loadNextPage();
+    }
+
+    private void loadIfNearEnd() {
+        BoundedRangeModel model = scrollPane.getVerticalScrollBar().getModel();
+        if (model.getValue() + model.getExtent() >= model.getMaximum() - LOAD_AHEAD_PX) {
+            loadNextPage();
+        }
+    }
+
+    private void loadNextPage() {
+        if (loading || nextIndex >= source.size() || !frame.isDisplayable()) return;
+
+        loading = true;
+        int from = nextIndex;
+        int to = Math.min(from + PAGE_SIZE, source.size());
+
+        new SwingWorker<String, Void>() {
+            @Override
+            protected String doInBackground() {
+                StringBuilder page = new StringBuilder();
+                for (int i = from; i < to; i++) {
+                    String status = source.isCompleted(i) ? "🍀 Concluída" : "🔴 Pendente";
+                    String dataFormatada = DATE_FORMAT.format(
+                            Instant.ofEpochMilli(source.createdAt(i)).atZone(ZoneId.systemDefault()));
+
+                    page.append("• ").append(source.description(i))
+                            .append("\n  📅 Adicionada: ").append(dataFormatada)
+                            .append(" - ").append(status).append("\n\n");
+                }
+                return page.toString();
+            }
+
+            @Override
+            protected void done() {
+                nextIndex = to;
+                try {
+                    doc.insertString(doc.getLength(), get(), defaultStyle); // Uma inserção por página
+                } catch (Exception e) {
+                    e.printStackTrace();
+                }
+                loading = false;
+                // Se a página não encheu a tela ainda não há rolagem: continua carregando
+                SwingUtilities.invokeLater(() -> loadIfNearEnd());
+            }
+        }.execute();
+    }
+}
@@ -0,0 +1,197 @@
+package todoapp;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Contadores e tempos dos caminhos quentes (carga, gravação, marcar, reordenar,
+// pintura, busca) e os últimos erros, para a janela "Diagnóstico" e para um
+// arquivo (-Dtodoapp.metrics.file=<arquivo>, gravado ao sair).
+//
+// Cada tempo é um histograma em baldes logarítmicos (8 por potência de 2, erro
+// de até 12,5% nos percentis) com contadores atômicos: registrar não aloca nem
+// trava. Com -Dtodoapp.metrics=false, ENABLED é uma constante falsa e o JIT
+// remove as medições dos caminhos instrumentados.
+public final class Metrics {
+    public static final boolean ENABLED = !"false".equalsIgnoreCase(System.getProperty("todoapp.metrics"));
+    private static final int MAX_RECENT_ERRORS = 20;
+    private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("dd/MM HH:mm:ss");
+
+    private static final Map<String, Counter> counters = new ConcurrentSkipListMap<>();
+    private static final Map<String, Timer> timers = new ConcurrentSkipListMap<>();
+    private static final Deque<String> recentErrors = new ArrayDeque<>(); // Trava: ela mesma
+
+    private Metrics() {
+    }
+
+    // Os nomes são fixos: quem mede guarda o Counter/Timer num campo static final
+    public static Counter counter(String name) {
+        return counters.computeIfAbsent(name, n -> new Counter());
+    }
+
+    public static Timer timer(String name) {
+        return timers.computeIfAbsent(name, n -> new Timer());
+    }
+
+    public static final class Counter {
+        private final LongAdder value = new LongAdder();
+
+        private Counter() {
+        }
+
+        public void increment() {
+            if (ENABLED) value.increment();
+        }
+
+        public void add(long amount) {
+            if (ENABLED) value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    public static final class Timer {
+        private static final int SUB_BITS = 3; // 8 baldes por potência de 2
+        private static final int SUB_COUNT = 1 << SUB_BITS;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(64 << SUB_BITS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        private Timer() {
+        }
+
+        // long start = TIMER.start(); ... TIMER.stop(start);
+        public long start() {
+            return ENABLED ? System.nanoTime() : 0;
+        }
+
+        public void stop(long start) {
+            if (ENABLED) record(System.nanoTime() - start);
+        }
+
+        public void record(long nanos) {
+            if (!ENABLED) return;
+            nanos = Math.max(0, nanos);
+            buckets.incrementAndGet(bucket(nanos));
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        public long count() {
+            return count.sum();
+        }
+
+        public long meanNanos() {
+            long n = count.sum();
+            return n == 0 ? 0 : totalNanos.sum() / n;
+        }
+
+        public long maxNanos() {
+            return maxNanos.get();
+        }
+
+        // Limite superior do balde onde cai o percentil p (0 a 1)
+        public long percentileNanos(double p) {
+            long[] snapshot = new long[buckets.length()];
+            long total = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                snapshot[i] = buckets.get(i);
+                total += snapshot[i];
+            }
+            if (total == 0) return 0;
+            long rank = Math.max(1, (long) Math.ceil(p * total));
+            long seen = 0;
+            for (int i = 0; i < snapshot.length; i++) {
+                seen += snapshot[i];
+                if (seen >= rank) return Math.min(upperBound(i), maxNanos.get());
+            }
+            return maxNanos.get();
+        }
+
+        // Abaixo de 8 ns, um balde por valor; acima, 8 baldes por potência de 2
+        private static int bucket(long nanos) {
+            if (nanos < SUB_COUNT) return (int) nanos;
+            int shift = 63 - Long.numberOfLeadingZeros(nanos) - SUB_BITS;
+            int sub = (int) (nanos >>> shift) & (SUB_COUNT - 1);
+            return ((shift + 1) << SUB_BITS) + sub;
+        }
+
+        private static long upperBound(int bucket) {
+            if (bucket < SUB_COUNT) return bucket;
+            int shift = (bucket >>> SUB_BITS) - 1;
+            int sub = bucket & (SUB_COUNT - 1);
+            return ((long) (SUB_COUNT + sub + 1) << shift) - 1;
+        }
+    }
+
+    // Conta o erro por área e guarda a mensagem; quem chama continua imprimindo no System.err
+    public static void error(String area, Throwable e) {
+        counter("erros." + area).increment();
+        String line = LocalDateTime.now().format(TIME_FORMAT) + " [" + area + "] " + e;
+        synchronized (recentErrors) {
+            if (recentErrors.size() == MAX_RECENT_ERRORS) recentErrors.removeFirst();
+            recentErrors.addLast(line);
+        }
+    }
+
+    public static List<String> recentErrors() {
+        synchronized (recentErrors) {
+            return new ArrayList<>(recentErrors);
+        }
+    }
+
+    // Texto da janela "Diagnóstico" e do arquivo
+    public static String report() {
+        StringBuilder out = new StringBuilder();
+        out.append("Métricas em ").append(LocalDateTime.now().format(TIME_FORMAT));
+        if (!ENABLED) out.append(" (desligadas: -Dtodoapp.metrics=false)");
+        out.append("\n\nTempos (ms)                     n      média     p50     p90     p99      máx\n");
+        for (Map.Entry<String, Timer> entry : timers.entrySet()) {
+            Timer timer = entry.getValue();
+            if (timer.count() == 0) continue;
+            out.append(String.format("%-24s %9d %10.3f %7.3f %7.3f %7.3f %8.3f%n", entry.getKey(), timer.count(),
+                    timer.meanNanos() / 1e6, timer.percentileNanos(0.50) / 1e6, timer.percentileNanos(0.90) / 1e6,
+                    timer.percentileNanos(0.99) / 1e6, timer.maxNanos() / 1e6));
+        }
+        out.append("\nContadores\n");
+        for (Map.Entry<String, Counter> entry : counters.entrySet()) {
+            out.append(String.format("%-24s %9d%n", entry.getKey(), entry.getValue().get()));
+        }
+        Runtime runtime = Runtime.getRuntime();
+        out.append(String.format("%nMemória: %d MB em uso de %d MB (máx %d MB)%n",
+                (runtime.totalMemory() - runtime.freeMemory()) >> 20, runtime.totalMemory() >> 20, runtime.maxMemory() >> 20));
+        out.append("\nÚltimos erros\n");
+        List<String> errors = recentErrors();
+        if (errors.isEmpty()) out.append("(nenhum)\n");
+        for (String error : errors) {
+            out.append(error).append('\n');
+        }
+        return out.toString();
+    }
+
+    public static boolean dump(File file) {
+        return TaskJournal.writeAtomically(file, List.of(report().split("\n", -1)));
+    }
+
+    // Com -Dtodoapp.metrics.file=<arquivo>, grava o relatório ao sair
+    public static void dumpOnExit() {
+        String path = System.getProperty("todoapp.metrics.file");
+        if (path != null && !path.isBlank()) {
+            dump(new File(path));
+        }
+    }
+}
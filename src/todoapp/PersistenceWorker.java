@@ -0,0 +1,67 @@
+package todoapp;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// Thread dedicada às gravações em disco. O TaskList só avisa que há
+// alterações pendentes; rajadas de avisos dentro da janela viram um único flush,
+// executado fora da thread do Swing.
+public class PersistenceWorker {
+    private final ScheduledExecutorService executor;
+    private final Runnable flushTask;
+    private final long windowMillis;
+    private final AtomicBoolean scheduled = new AtomicBoolean(false);
+
+    public PersistenceWorker(Runnable flushTask, long windowMillis) {
+        this.flushTask = flushTask;
+        this.windowMillis = windowMillis;
+        this.executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "todoapp-persistence");
+            thread.setDaemon(true); // Não segura a JVM aberta; o flush de saída é explícito
+            return thread;
+        });
+    }
+
+    // Depois do shutdown() não há mais quem grave: a alteração fica só em
+    // memória, e o erro é registrado em vez de estourar em quem alterou
+    public void markDirty() {
+        if (scheduled.compareAndSet(false, true)) {
+            try {
+                executor.schedule(this::runFlush, windowMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                scheduled.set(false);
+                System.err.println("Alteração feita depois do fechamento da lista não será gravada.");
+                Metrics.error("gravacao", e);
+            }
+        }
+    }
+
+    // Grava tudo o que estiver pendente e espera terminar
+    public void flushNow() {
+        try {
+            executor.submit(this::runFlush).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RejectedExecutionException e) {
+            System.err.println("Erro ao gravar alterações pendentes: " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+        }
+    }
+
+    public void shutdown() {
+        flushNow();
+        executor.shutdown();
+    }
+
+    private void runFlush() {
+        scheduled.set(false); // Avisos que chegarem durante o flush agendam outro
+        try {
+            flushTask.run();
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao gravar tarefas: " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+        }
+    }
+}
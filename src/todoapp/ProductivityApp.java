@@ -4,6 +4,14 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
+import java.io.File;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 public class ProductivityApp {
     private JFrame frame;
@@ -11,6 +19,18 @@ public class ProductivityApp {
     private TaskInputPanel inputPanel;
     private ProgressBar progressBar;
     private HeaderPanel headerPanel;
+    private FilterBar filterBar;
+    private WorkspaceBar workspaceBar;
+    private final Workspaces workspaces = new Workspaces(new File("."));
+    private TaskServer server; // Só com -Dtodoapp.http.port=<porta>
+    // Uma thread para todos os lembretes, de todas as listas, e o resumo diário
+    private final ReminderScheduler scheduler = new ReminderScheduler();
+    private Reminders reminders; // Da lista exibida, depois de carregada (só muda na EDT)
+    // Lembretes que venceram juntos aparecem num aviso só
+    private final Queue<Reminders.Rule> dueReminders = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean noticeScheduled = new AtomicBoolean();
+    private static final int NOTICE_MAX_LINES = 20;
+    private final long startNanos = System.nanoTime();
 
     public ProductivityApp() {
         initializeFrame();
@@ -29,10 +49,13 @@ public class ProductivityApp {
 
     private void createComponents() {
         progressBar = new ProgressBar();
+        // A carga fica para depois que a janela aparecer (show())
         taskList = new TaskList(progress -> {
             progressBar.updateProgress(progress); // Agora os tipos estão compatíveis
-        });
+        }, workspaces.activate(Workspaces.DEFAULT), false);
         inputPanel = new TaskInputPanel(taskList);
+        filterBar = new FilterBar(taskList);
+        workspaceBar = new WorkspaceBar(workspaces, this::switchWorkspace);
         headerPanel = new HeaderPanel();
     }
 
@@ -44,7 +67,16 @@ public class ProductivityApp {
         contentPane.setBackground(new Color(128, 52, 7));
 
         contentPane.add(headerPanel, BorderLayout.NORTH);
-        contentPane.add(taskList, BorderLayout.CENTER);
+        // Seletor de listas e filtro logo acima da lista
+        JPanel bars = new JPanel(new GridLayout(2, 1));
+        bars.setOpaque(false);
+        bars.add(workspaceBar);
+        bars.add(filterBar);
+        JPanel listPanel = new JPanel(new BorderLayout());
+        listPanel.setOpaque(false);
+        listPanel.add(bars, BorderLayout.NORTH);
+        listPanel.add(taskList, BorderLayout.CENTER);
+        contentPane.add(listPanel, BorderLayout.CENTER);
         contentPane.add(inputPanel, BorderLayout.SOUTH);
 
         frame.add(progressBar, BorderLayout.PAGE_START);
@@ -54,14 +86,170 @@ public class ProductivityApp {
     private void setupEventHandlers() {
         // Configura o botão "Finalizar Dia" para limpar tarefas concluídas
         inputPanel.setFinishDayAction(e -> {
-            taskList.finalizeDay();
-            JOptionPane.showMessageDialog(frame, "Dia finalizado! Tarefas concluídas removidas.");
+            if (taskList.finalizeDay()) {
+                JOptionPane.showMessageDialog(frame, "Dia finalizado! Tarefas concluídas removidas.");
+            } else if (taskList.isLoaded()) {
+                JOptionPane.showMessageDialog(frame, "Não foi possível arquivar o dia; as tarefas continuam no histórico.",
+                        "Erro", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        inputPanel.setRemindersAction(e -> {
+            if (reminders == null) {
+                JOptionPane.showMessageDialog(frame, "Aguarde: as tarefas ainda estão sendo carregadas.");
+                return;
+            }
+            new RemindersWindow(reminders, workspaces.activeName()).show();
+        });
+
+        // Garante que nenhuma alteração pendente se perca ao fechar a janela
+        frame.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (server != null) server.stop();
+                if (reminders != null) reminders.stop(); // Grava a hora dos últimos disparos
+                scheduler.shutdown();
+                workspaces.shutdown(); // Todas as listas abertas, não só a exibida
+                Metrics.dumpOnExit(); // Depois da última gravação, para ela entrar no relatório
+            }
         });
     }
 
     public void show() {
         frame.setVisible(true);
         frame.setLocationRelativeTo(null);  // Centraliza a janela
+        StartupLog.phase("janela exibida", startNanos);
+        TaskRepository repository = taskList.getRepository();
+        taskList.loadInBackground(progressBar::showLoading, () -> listLoaded(repository));
+        startServer();
+        scheduleDailySummary();
+    }
+
+    // Depois da carga: fecha as listas que passaram do orçamento e, se a lista
+    // carregada ainda for a exibida, liga os lembretes dela
+    private void listLoaded(TaskRepository repository) {
+        workspaces.evictIfNeeded();
+        if (workspaces.active() == repository) {
+            startReminders(repository);
+        }
+    }
+
+    // Troca a lista exibida. Se ela ainda estiver em memória é imediato; senão
+    // é carregada como na abertura (prévia + carga em segundo plano). As listas
+    // inativas que passarem do orçamento são fechadas depois da carga.
+    private void switchWorkspace(String name) {
+        stopReminders(); // Só a lista exibida dispara lembretes; antes de activate(), que pode fechar a atual
+        TaskRepository repository;
+        try {
+            repository = workspaces.activate(name);
+        } catch (RuntimeException e) {
+            System.err.println("Erro ao abrir a lista: " + e.getMessage());
+            e.printStackTrace();
+            JOptionPane.showMessageDialog(frame, "Não foi possível abrir a lista: " + e.getMessage(),
+                    "Erro", JOptionPane.ERROR_MESSAGE);
+            workspaceBar.refresh();
+            TaskRepository current = workspaces.active();
+            if (current != null && current.isLoaded()) startReminders(current); // Continua na lista de antes
+            return;
+        }
+        taskList.setRepository(repository);
+        if (repository.isLoaded()) {
+            startReminders(repository);
+        } else {
+            taskList.loadInBackground(progressBar::showLoading, () -> listLoaded(repository));
+        }
+        workspaceBar.refresh();
+        frame.setTitle(name.equals(Workspaces.DEFAULT) ? "Productivity Manager" : "Productivity Manager - " + name);
+    }
+
+    private void startReminders(TaskRepository repository) {
+        stopReminders();
+        reminders = new Reminders(workspaces.directory(workspaces.activeName()));
+        reminders.start(scheduler, rule -> reminderDue(repository, rule));
+    }
+
+    private void stopReminders() {
+        if (reminders != null) {
+            reminders.stop();
+            reminders = null;
+        }
+    }
+
+    // Thread do agendador: tarefas recorrentes entram direto no repositório
+    // (thread-safe) como entrada externa, sem limpar o refazer de quem usa a
+    // janela; lembretes são agrupados e exibidos na EDT
+    private void reminderDue(TaskRepository repository, Reminders.Rule rule) {
+        if (rule.kind() == Reminders.Kind.TASK) {
+            // A lista pode ter saído da memória entre o disparo e aqui (troca de
+            // lista); ocupada, ela não é fechada até a tarefa ir para o diário
+            if (!repository.tryBeginBackgroundWork()) {
+                System.err.println("Lista já fechada; tarefa recorrente não adicionada: " + rule.description());
+                return;
+            }
+            try {
+                TaskStore task = new TaskStore();
+                task.add(rule.description(), String.join(",", TaskStore.clean(rule.tags()).split(",")), rule.priority(),
+                        System.currentTimeMillis(), false, TaskStore.NO_DATE);
+                repository.addBatchExternal(task);
+                repository.compactIfNeeded();
+            } finally {
+                repository.endBackgroundWork();
+            }
+            return;
+        }
+        dueReminders.add(rule);
+        if (noticeScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::showDueReminders);
+        }
+    }
+
+    private void showDueReminders() {
+        noticeScheduled.set(false); // Quem vencer depois daqui agenda outro aviso
+        List<String> lines = new ArrayList<>();
+        int count = 0;
+        Reminders.Rule rule;
+        while ((rule = dueReminders.poll()) != null) {
+            if (count++ < NOTICE_MAX_LINES) lines.add("• " + rule.description());
+        }
+        if (count == 0) return;
+        if (count > NOTICE_MAX_LINES) lines.add("... e mais " + (count - NOTICE_MAX_LINES));
+        // Não modal: lembretes seguintes não ficam presos atrás deste
+        JOptionPane pane = new JOptionPane(String.join("\n", lines), JOptionPane.INFORMATION_MESSAGE);
+        JDialog dialog = pane.createDialog(frame, count == 1 ? "Lembrete" : count + " lembretes");
+        dialog.setModal(false);
+        dialog.setVisible(true);
+    }
+
+    // Resumo do dia ("Ver todas") num horário fixo, com -Dtodoapp.summary.at=19:00
+    private void scheduleDailySummary() {
+        String at = System.getProperty("todoapp.summary.at");
+        if (at == null || at.isBlank()) return;
+        try {
+            scheduleSummary(Recurrence.parse("diario " + at, ZoneId.systemDefault()));
+        } catch (IllegalArgumentException e) {
+            System.err.println("Horário do resumo diário inválido: " + e.getMessage());
+        }
+    }
+
+    private void scheduleSummary(Recurrence daily) {
+        long next = daily.next(System.currentTimeMillis(), ZoneId.systemDefault());
+        scheduler.schedule(next, () -> {
+            SwingUtilities.invokeLater(taskList::showAllTasks);
+            scheduleSummary(daily);
+        });
+    }
+
+    // API HTTP local opcional; as requisições são aplicadas na EDT, como os cliques
+    private void startServer() {
+        Integer port = Integer.getInteger("todoapp.http.port");
+        if (port == null) return;
+        try {
+            server = new TaskServer(workspaces::active, SwingUtilities::invokeLater, port);
+            server.start();
+        } catch (IOException e) {
+            System.err.println("Erro ao iniciar a API HTTP: " + e.getMessage());
+            e.printStackTrace();
+        }
     }
 
     public static void main(String[] args) {
@@ -3,10 +3,22 @@ package todoapp;
 import javax.swing.*;
 import java.awt.*;
 import javax.swing.plaf.basic.BasicProgressBarUI;
-import java.awt.event.ActionEvent;
-import java.awt.event.ActionListener;
 
 public class ProgressBar extends JProgressBar {
+    private static final int FRAME_MS = 16; // No máximo ~60 quadros por segundo
+    private static final int PERCENT_PER_SECOND = 100; // Mesma velocidade de antes (1% a cada 10 ms)
+    // Atualizações mais próximas que isso (ex.: vários cliques seguidos) ou um
+    // quadro atrasado além disso (EDT ocupada) vão direto para o valor final
+    private static final long BURST_NANOS = FRAME_MS * 1_000_000L;
+    private static final long LAG_NANOS = 100_000_000L;
+
+    // Um único timer por barra: uma atualização no meio da animação só muda o alvo
+    private final Timer animator = new Timer(FRAME_MS, e -> animate());
+    private int target;
+    private double current; // Valor fracionário, para a velocidade não depender da taxa de quadros
+    private long lastFrameNanos;
+    private long lastUpdateNanos;
+
     public ProgressBar() {
         super(0, 100);
         setStringPainted(true);
@@ -14,6 +26,7 @@ public class ProgressBar extends JProgressBar {
         setForeground(new Color(129, 174, 45));
         setBackground(new Color(20, 20, 20));
         setBorder(BorderFactory.createLineBorder(Color.darkGray, 1));
+        animator.setCoalesce(true); // Ticks acumulados viram um só
 
         // Personalizar UI para definir a cor do texto
         setUI(new BasicProgressBarUI() {
@@ -25,25 +38,57 @@ public class ProgressBar extends JProgressBar {
         });
     }
 
+    // Andamento da carga das tarefas ao abrir o app, sem animação
+    public void showLoading(int percent) {
+        animator.stop();
+        current = target = percent;
+        setValue(percent);
+        setString("Carregando tarefas... " + percent + "%");
+    }
+
     public void updateProgress(int progress) {
-        Timer timer = new Timer(10, new ActionListener() { // ⏳ Intervalo de 10ms para suavizar a animação
-            int currentValue = getValue(); // Obtém o valor atual da barra
+        long now = System.nanoTime();
+        boolean burst = now - lastUpdateNanos < BURST_NANOS;
+        lastUpdateNanos = now;
+        target = progress;
 
-            @Override
-            public void actionPerformed(ActionEvent e) {
-                if (currentValue < progress) {
-                    currentValue++; // 🔼 Aumenta progressivamente
-                } else if (currentValue > progress) {
-                    currentValue--; // 🔽 Diminui progressivamente
-                } else {
-                    ((Timer) e.getSource()).stop(); // 🛑 Para quando atingir o alvo
-                }
-
-                setValue(currentValue);
-                setString(currentValue + "% completado");
-            }
-        });
+        // Janela escondida/minimizada ou rajada de atualizações: sem animação
+        if (!isShowing() || burst) {
+            jumpToTarget();
+            return;
+        }
+        if (!animator.isRunning()) {
+            current = getValue();
+            lastFrameNanos = now;
+            animator.start();
+        }
+    }
+
+    private void animate() {
+        long now = System.nanoTime();
+        long elapsed = now - lastFrameNanos;
+        lastFrameNanos = now;
+        if (!isShowing() || elapsed > LAG_NANOS) {
+            jumpToTarget();
+            return;
+        }
+
+        double step = Math.max(1, PERCENT_PER_SECOND * elapsed / 1e9);
+        current = current < target ? Math.min(target, current + step) : Math.max(target, current - step);
+        display((int) Math.round(current));
+        if (current == target) {
+            animator.stop();
+        }
+    }
+
+    private void jumpToTarget() {
+        animator.stop();
+        current = target;
+        display(target);
+    }
 
-        timer.start(); // 🚀 Inicia a animação
+    private void display(int value) {
+        setValue(value);
+        setString(value + "% completado");
     }
 }
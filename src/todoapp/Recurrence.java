@@ -0,0 +1,199 @@
+package todoapp;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+// Quando um lembrete (ou uma tarefa recorrente) dispara. Formatos aceitos:
+//
+//   em 2026-10-20 09:00        uma vez, na data e hora (prazo)
+//   diario 19:00               todo dia
+//   semanal seg,qua,sex 08:30  nos dias da semana (dom, seg, ter, qua, qui, sex, sab)
+//   cron 0 9 * * 1-5           minuto, hora, dia do mês, mês, dia da semana (0 ou 7 = domingo)
+//
+// Tudo vira o mesmo conjunto de máscaras de bits (como no cron), então cada
+// regra ocupa uns poucos longs e next() não depende de quantas regras existem.
+public final class Recurrence {
+    private static final DateTimeFormatter AT_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+    private static final String[] WEEKDAYS = {"dom", "seg", "ter", "qua", "qui", "sex", "sab"};
+    private static final int MAX_DAYS_AHEAD = 366 * 8; // Cobre 29/02 numa segunda-feira e afins
+    private static final long NEVER = -1;
+
+    private final String text; // Forma normalizada, gravada em reminders.txt
+    private final long at; // Só para "em"; NEVER nas recorrentes
+    private final long minutes; // Bits 0-59
+    private final int hours; // Bits 0-23
+    private final long daysOfMonth; // Bits 1-31
+    private final int months; // Bits 1-12
+    private final int daysOfWeek; // Bits 0-6, 0 = domingo
+    private final boolean anyDayOfMonth;
+    private final boolean anyDayOfWeek;
+
+    private Recurrence(String text, long at, long minutes, int hours, long daysOfMonth, int months,
+                       int daysOfWeek, boolean anyDayOfMonth, boolean anyDayOfWeek) {
+        this.text = text;
+        this.at = at;
+        this.minutes = minutes;
+        this.hours = hours;
+        this.daysOfMonth = daysOfMonth;
+        this.months = months;
+        this.daysOfWeek = daysOfWeek;
+        this.anyDayOfMonth = anyDayOfMonth;
+        this.anyDayOfWeek = anyDayOfWeek;
+    }
+
+    // Lança IllegalArgumentException com uma mensagem para exibir ao usuário
+    public static Recurrence parse(String text, ZoneId zone) {
+        String normalized = text.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT).replace("diário", "diario");
+        String[] parts = normalized.split(" ");
+        switch (parts[0]) {
+            case "em" -> {
+                if (parts.length != 3) throw new IllegalArgumentException("Use: em AAAA-MM-DD HH:MM");
+                try {
+                    long at = LocalDateTime.parse(parts[1] + " " + parts[2], AT_FORMAT).atZone(zone).toInstant().toEpochMilli();
+                    return new Recurrence(normalized, at, 0, 0, 0, 0, 0, true, true);
+                } catch (DateTimeParseException e) {
+                    throw new IllegalArgumentException("Data inválida: " + parts[1] + " " + parts[2]);
+                }
+            }
+            case "diario" -> {
+                if (parts.length != 2) throw new IllegalArgumentException("Use: diario HH:MM");
+                int[] time = parseTime(parts[1]);
+                return new Recurrence(normalized, NEVER, 1L << time[1], 1 << time[0], range(1, 31), (int) range(1, 12),
+                        (int) range(0, 6), true, true);
+            }
+            case "semanal" -> {
+                if (parts.length != 3) throw new IllegalArgumentException("Use: semanal seg,qua HH:MM");
+                int days = 0;
+                for (String day : parts[1].split(",")) {
+                    int index = weekday(day);
+                    if (index < 0) throw new IllegalArgumentException("Dia da semana inválido: " + day);
+                    days |= 1 << index;
+                }
+                int[] time = parseTime(parts[2]);
+                return new Recurrence(normalized, NEVER, 1L << time[1], 1 << time[0], range(1, 31), (int) range(1, 12),
+                        days, true, false);
+            }
+            case "cron" -> {
+                if (parts.length != 6) throw new IllegalArgumentException("Use: cron minuto hora dia mês dia-da-semana");
+                long daysOfWeek = field(parts[5], 0, 7, "dia da semana");
+                if ((daysOfWeek & (1L << 7)) != 0) daysOfWeek = (daysOfWeek | 1) & ~(1L << 7);
+                return new Recurrence(normalized, NEVER, field(parts[1], 0, 59, "minuto"),
+                        (int) field(parts[2], 0, 23, "hora"), field(parts[3], 1, 31, "dia"),
+                        (int) field(parts[4], 1, 12, "mês"), (int) daysOfWeek,
+                        parts[3].equals("*"), parts[5].equals("*"));
+            }
+            default -> throw new IllegalArgumentException(
+                    "Comece com \"em\", \"diario\", \"semanal\" ou \"cron\"");
+        }
+    }
+
+    public boolean isRecurring() {
+        return at == NEVER;
+    }
+
+    // Próximo disparo depois de `after` (ms), ou -1 se não houver mais nenhum
+    public long next(long after, ZoneId zone) {
+        if (!isRecurring()) return at > after ? at : NEVER;
+        LocalDateTime start = LocalDateTime.ofInstant(Instant.ofEpochMilli(after), zone)
+                .truncatedTo(ChronoUnit.MINUTES).plusMinutes(1);
+        LocalDate date = start.toLocalDate();
+        int from = start.getHour() * 60 + start.getMinute();
+        for (int i = 0; i < MAX_DAYS_AHEAD; i++, date = date.plusDays(1), from = 0) {
+            if (!matches(date)) continue;
+            for (int minute = firstTime(from); minute >= 0; minute = firstTime(minute + 1)) {
+                // Numa mudança de horário a hora pode não existir ou se repetir; o ZoneId ajusta
+                long millis = date.atTime(minute / 60, minute % 60).atZone(zone).toInstant().toEpochMilli();
+                if (millis > after) return millis;
+            }
+        }
+        return NEVER;
+    }
+
+    private boolean matches(LocalDate date) {
+        if ((months & (1 << date.getMonthValue())) == 0) return false;
+        boolean dayOfMonth = (daysOfMonth & (1L << date.getDayOfMonth())) != 0;
+        boolean dayOfWeek = (daysOfWeek & (1 << (date.getDayOfWeek().getValue() % 7))) != 0;
+        // Como no cron: com os dois restritos, basta um deles
+        return anyDayOfMonth || anyDayOfWeek ? dayOfMonth && dayOfWeek : dayOfMonth || dayOfWeek;
+    }
+
+    // Primeiro minuto do dia (0-1439) a partir de `from` em que a regra dispara, ou -1
+    private int firstTime(int from) {
+        for (int hour = from / 60; hour < 24; hour++) {
+            if ((hours & (1 << hour)) == 0) continue;
+            long rest = hour == from / 60 ? minutes & (-1L << (from % 60)) : minutes;
+            if (rest != 0) return hour * 60 + Long.numberOfTrailingZeros(rest);
+        }
+        return -1;
+    }
+
+    private static int[] parseTime(String time) {
+        String[] parts = time.split(":");
+        try {
+            int hour = Integer.parseInt(parts[0]);
+            int minute = parts.length == 2 ? Integer.parseInt(parts[1]) : -1;
+            if (hour >= 0 && hour < 24 && minute >= 0 && minute < 60) return new int[]{hour, minute};
+        } catch (NumberFormatException e) {
+            // Cai na mensagem abaixo
+        }
+        throw new IllegalArgumentException("Horário inválido: " + time + " (use HH:MM)");
+    }
+
+    private static int weekday(String name) {
+        for (int i = 0; i < WEEKDAYS.length; i++) {
+            if (WEEKDAYS[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // Campo do cron: *, */n, a, a-b, a-b/n, separados por vírgula
+    private static long field(String spec, int min, int max, String name) {
+        long bits = 0;
+        try {
+            for (String part : spec.split(",")) {
+                int step = 1;
+                int slash = part.indexOf('/');
+                if (slash >= 0) {
+                    step = Integer.parseInt(part.substring(slash + 1));
+                    part = part.substring(0, slash);
+                }
+                int from;
+                int to;
+                if (part.equals("*")) {
+                    from = min;
+                    to = max;
+                } else if (part.contains("-")) {
+                    from = Integer.parseInt(part.substring(0, part.indexOf('-')));
+                    to = Integer.parseInt(part.substring(part.indexOf('-') + 1));
+                } else {
+                    from = Integer.parseInt(part);
+                    to = slash >= 0 ? max : from;
+                }
+                if (from < min || to > max || from > to || step < 1) {
+                    throw new IllegalArgumentException("Valor fora do intervalo no campo " + name + ": " + spec);
+                }
+                for (int value = from; value <= to; value += step) {
+                    bits |= 1L << value;
+                }
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Campo " + name + " inválido: " + spec);
+        }
+        return bits;
+    }
+
+    private static long range(int from, int to) {
+        return ((1L << (to + 1)) - 1) & ~((1L << from) - 1);
+    }
+
+    @Override
+    public String toString() {
+        return text;
+    }
+}
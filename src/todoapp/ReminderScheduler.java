@@ -0,0 +1,192 @@
+package todoapp;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+// Uma única thread para todos os lembretes, em vez de um java.util.Timer (e
+// uma thread) por agendamento. Os disparos ficam num heap binário ordenado pela
+// hora do relógio de parede; a thread dorme até o primeiro vencer e só acorda
+// antes disso se entrar um disparo mais cedo. Agendar e cancelar custam
+// O(log n) (cada Handle sabe sua posição no heap) e cada disparo ocupa um
+// objeto pequeno, então dezenas de milhares de lembretes não pesam.
+//
+// As ações rodam na thread do agendador, uma de cada vez: quem mexe em Swing
+// repassa para a EDT, e nada deve bloquear por muito tempo.
+public class ReminderScheduler {
+    // Nunca dorme mais que isso de uma vez: se o computador hibernar ou o relógio
+    // for ajustado, a espera (que conta tempo decorrido) erraria a hora marcada
+    private static final long MAX_SLEEP_MS = 60_000;
+
+    public static final class Handle {
+        private final long at;
+        private final long seq; // Desempate: mesma hora, ordem de agendamento
+        private final Runnable action;
+        private int index = -1; // Posição no heap; -1 depois de disparar ou ser cancelado
+
+        private Handle(long at, long seq, Runnable action) {
+            this.at = at;
+            this.seq = seq;
+            this.action = action;
+        }
+
+        public long at() {
+            return at;
+        }
+    }
+
+    private final LongSupplier clock;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Thread thread;
+    private Handle[] heap = new Handle[16];
+    private int size;
+    private long nextSeq;
+    private boolean stopped;
+
+    public ReminderScheduler() {
+        this(System::currentTimeMillis);
+    }
+
+    public ReminderScheduler(LongSupplier clock) {
+        this.clock = clock;
+        thread = new Thread(this::run, "todoapp-reminders");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    // Roda `action` em `at` (ms desde a época); se já passou, assim que possível
+    public Handle schedule(long at, Runnable action) {
+        lock.lock();
+        try {
+            Handle handle = new Handle(at, nextSeq++, action);
+            if (size == heap.length) heap = Arrays.copyOf(heap, size * 2);
+            heap[size] = handle;
+            handle.index = size;
+            siftUp(size++);
+            if (handle.index == 0) changed.signal(); // Vence antes do que a thread está esperando
+            return handle;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // false se já disparou ou já foi cancelado
+    public boolean cancel(Handle handle) {
+        lock.lock();
+        try {
+            int i = handle.index;
+            if (i < 0 || i >= size || heap[i] != handle) return false;
+            handle.index = -1;
+            Handle last = heap[--size];
+            heap[size] = null;
+            if (i < size) {
+                heap[i] = last;
+                last.index = i;
+                siftDown(i);
+                if (last.index == i) siftUp(i);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return size;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void shutdown() {
+        lock.lock();
+        try {
+            stopped = true;
+            changed.signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void run() {
+        while (true) {
+            Handle due;
+            lock.lock();
+            try {
+                while (true) {
+                    if (stopped) return;
+                    if (size == 0) {
+                        changed.await();
+                        continue;
+                    }
+                    long delay = heap[0].at - clock.getAsLong();
+                    if (delay <= 0) break;
+                    changed.await(Math.min(delay, MAX_SLEEP_MS), TimeUnit.MILLISECONDS);
+                }
+                due = poll();
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            try {
+                due.action.run();
+            } catch (RuntimeException e) {
+                System.err.println("Erro ao disparar um lembrete: " + e.getMessage());
+                e.printStackTrace();
+                Metrics.error("lembretes", e);
+            }
+        }
+    }
+
+    private Handle poll() {
+        Handle first = heap[0];
+        first.index = -1;
+        Handle last = heap[--size];
+        heap[size] = null;
+        if (size > 0) {
+            heap[0] = last;
+            last.index = 0;
+            siftDown(0);
+        }
+        return first;
+    }
+
+    private void siftUp(int i) {
+        Handle handle = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(handle, heap[parent])) break;
+            move(heap[parent], i);
+            i = parent;
+        }
+        move(handle, i);
+    }
+
+    private void siftDown(int i) {
+        Handle handle = heap[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && before(heap[child + 1], heap[child])) child++;
+            if (!before(heap[child], handle)) break;
+            move(heap[child], i);
+            i = child;
+        }
+        move(handle, i);
+    }
+
+    private void move(Handle handle, int i) {
+        heap[i] = handle;
+        handle.index = i;
+    }
+
+    private static boolean before(Handle a, Handle b) {
+        return a.at != b.at ? a.at < b.at : a.seq < b.seq;
+    }
+}
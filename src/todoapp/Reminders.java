@@ -0,0 +1,246 @@
+package todoapp;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Tarefas recorrentes e lembretes de uma lista, gravados em reminders.txt na
+// pasta dela. Cada regra tem no máximo um disparo no ReminderScheduler (o
+// próximo); ao disparar, o seguinte é calculado e agendado.
+//
+// O que venceu com o app fechado (ou com a lista inativa) dispara uma vez só ao
+// iniciar, não uma vez por ocorrência perdida: por isso a hora do último
+// disparo também é gravada. A gravação é agrupada (no máximo uma a cada
+// SAVE_DELAY_MS, na thread do agendador), então milhares de regras disparando
+// juntas não reescrevem o arquivo milhares de vezes.
+public class Reminders {
+    public enum Kind {
+        TASK("T", "Tarefa recorrente"), // Cria a tarefa na lista
+        REMINDER("L", "Lembrete"); // Só avisa
+
+        private final String code;
+        private final String label;
+
+        Kind(String code, String label) {
+            this.code = code;
+            this.label = label;
+        }
+
+        @Override
+        public String toString() {
+            return label;
+        }
+    }
+
+    public static final class Rule {
+        private final Kind kind;
+        private final Recurrence when;
+        private final String description;
+        private final String tags;
+        private final int priority;
+        private long lastRun; // Último disparo (ou a criação), em ms
+        private ReminderScheduler.Handle next;
+
+        private Rule(Kind kind, Recurrence when, String description, String tags, int priority, long lastRun) {
+            this.kind = kind;
+            this.when = when;
+            this.description = description;
+            this.tags = tags;
+            this.priority = priority;
+            this.lastRun = lastRun;
+        }
+
+        public Kind kind() {
+            return kind;
+        }
+
+        public Recurrence when() {
+            return when;
+        }
+
+        public String description() {
+            return description;
+        }
+
+        public String tags() {
+            return tags;
+        }
+
+        public int priority() {
+            return priority;
+        }
+    }
+
+    private static final String FILE_REMINDERS = "reminders.txt";
+    private static final long SAVE_DELAY_MS = 1000;
+
+    private final File file;
+    private final ZoneId zone;
+    private final Set<Rule> rules = new LinkedHashSet<>(); // Remover e conferir custam O(1) mesmo com milhares
+    private ReminderScheduler scheduler; // Só entre start() e stop()
+    private Consumer<Rule> onFire;
+    private ReminderScheduler.Handle pendingSave;
+
+    public Reminders(File dataDir) {
+        this(dataDir, ZoneId.systemDefault());
+    }
+
+    public Reminders(File dataDir, ZoneId zone) {
+        this.file = new File(dataDir, FILE_REMINDERS);
+        this.zone = zone;
+        load();
+    }
+
+    public synchronized List<Rule> rules() {
+        return new ArrayList<>(rules);
+    }
+
+    // Lança IllegalArgumentException se a regra nunca vai disparar (ex.: data no passado)
+    public synchronized Rule add(Kind kind, Recurrence when, String description, String tags, int priority) {
+        long now = System.currentTimeMillis();
+        if (when.next(now, zone) < 0) {
+            throw new IllegalArgumentException("\"" + when + "\" não dispara mais nenhuma vez");
+        }
+        // O arquivo é separado por ';' e uma regra por linha
+        Rule rule = new Rule(kind, when, description.replaceAll("[\\r\\n]+", " "),
+                tags.replace(";", ","), priority, now);
+        rules.add(rule);
+        scheduleNext(rule, now);
+        save();
+        return rule;
+    }
+
+    public synchronized void remove(Rule rule) {
+        if (!rules.remove(rule)) return;
+        cancel(rule);
+        save();
+    }
+
+    // Próximo disparo da regra (ms), ou -1
+    public synchronized long nextRun(Rule rule) {
+        return rule.next != null ? rule.next.at() : rule.when.next(rule.lastRun, zone);
+    }
+
+    // Passa a disparar as regras. onFire roda na thread do agendador.
+    public synchronized void start(ReminderScheduler scheduler, Consumer<Rule> onFire) {
+        stop();
+        this.scheduler = scheduler;
+        this.onFire = onFire;
+        long now = System.currentTimeMillis();
+        for (Rule rule : rules) {
+            long due = rule.when.next(rule.lastRun, zone);
+            if (due >= 0 && due <= now) {
+                // Venceu enquanto estava fechado: dispara já, uma vez
+                schedule(rule, now);
+            } else {
+                scheduleNext(rule, rule.lastRun);
+            }
+        }
+    }
+
+    // Cancela os disparos (ao trocar de lista ou sair) e grava o que falta
+    public synchronized void stop() {
+        if (scheduler == null) return;
+        for (Rule rule : rules) {
+            cancel(rule);
+        }
+        if (pendingSave != null && scheduler.cancel(pendingSave)) {
+            writeFile();
+        }
+        pendingSave = null;
+        scheduler = null;
+        onFire = null;
+    }
+
+    private void fire(Rule rule, long at) {
+        Consumer<Rule> action;
+        synchronized (this) {
+            // Cancelado (ou reagendado por um stop()/start()) enquanto vencia
+            if (scheduler == null || !rules.contains(rule) || rule.next == null || rule.next.at() != at) return;
+            long now = System.currentTimeMillis();
+            rule.lastRun = now;
+            rule.next = null;
+            if (!rule.when.isRecurring()) {
+                rules.remove(rule); // Prazo único: depois de avisar, sai da lista
+            } else {
+                scheduleNext(rule, now);
+            }
+            saveSoon();
+            action = onFire;
+        }
+        action.accept(rule);
+    }
+
+    private void scheduleNext(Rule rule, long after) {
+        long at = rule.when.next(after, zone);
+        if (at >= 0) schedule(rule, at);
+    }
+
+    private void schedule(Rule rule, long at) {
+        if (scheduler == null) return;
+        rule.next = scheduler.schedule(at, () -> fire(rule, at));
+    }
+
+    private void cancel(Rule rule) {
+        if (rule.next != null && scheduler != null) {
+            scheduler.cancel(rule.next);
+        }
+        rule.next = null;
+    }
+
+    private void saveSoon() {
+        if (pendingSave != null) return;
+        pendingSave = scheduler.schedule(System.currentTimeMillis() + SAVE_DELAY_MS, () -> {
+            synchronized (this) {
+                pendingSave = null;
+                writeFile();
+            }
+        });
+    }
+
+    // Com o agendador rodando, a gravação fica com ele (fora da EDT); stop() grava o que faltar
+    private void save() {
+        if (scheduler != null) {
+            saveSoon();
+        } else {
+            writeFile();
+        }
+    }
+
+    private void writeFile() {
+        List<String> lines = new ArrayList<>(rules.size());
+        for (Rule rule : rules) {
+            lines.add(rule.kind.code + ";" + rule.lastRun + ";" + rule.priority + ";" + rule.tags + ";"
+                    + rule.when + ";" + rule.description);
+        }
+        TaskJournal.writeAtomically(file, lines);
+    }
+
+    private void load() {
+        if (!file.exists()) return;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) continue;
+                try {
+                    String[] parts = line.split(";", 6);
+                    Kind kind = parts[0].equals(Kind.TASK.code) ? Kind.TASK : Kind.REMINDER;
+                    rules.add(new Rule(kind, Recurrence.parse(parts[4], zone), parts[5], parts[3],
+                            Integer.parseInt(parts[2]), Long.parseLong(parts[1])));
+                } catch (RuntimeException e) {
+                    System.err.println("Regra inválida em " + file.getName() + ": " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler os lembretes: " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package todoapp;
+
+import javax.swing.*;
+import java.awt.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+// Janela "Lembretes": tarefas recorrentes e lembretes da lista aberta
+public class RemindersWindow {
+    private static final DateTimeFormatter NEXT_FORMAT = DateTimeFormatter.ofPattern("dd/MM HH:mm");
+    private static final String WHEN_HELP = "<html>em 2026-10-20 09:00 &nbsp;|&nbsp; diario 19:00 &nbsp;|&nbsp; "
+            + "semanal seg,qua 08:30<br>cron 0 9 * * 1-5 (minuto hora dia mês dia-da-semana)</html>";
+
+    private final JFrame frame;
+    private final Reminders reminders;
+    private final DefaultListModel<Reminders.Rule> rulesModel = new DefaultListModel<>();
+
+    public RemindersWindow(Reminders reminders, String listName) {
+        this.reminders = reminders;
+        frame = new JFrame("Lembretes - " + listName);
+        frame.setSize(560, 600);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+
+        JPanel panel = new JPanel(new BorderLayout(0, 10));
+        panel.setBackground(new Color(248, 200, 97)); // Mesmo fundo de "Ver todas" e "Estatísticas"
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JComboBox<Reminders.Kind> kindBox = new JComboBox<>(Reminders.Kind.values());
+        JTextField whenInput = new JTextField("diario 09:00");
+        JTextField descriptionInput = new JTextField();
+        JTextField tagsInput = new JTextField();
+        JComboBox<String> priorityBox = new JComboBox<>(new String[]{"1 (Alta)", "2 (Média)", "3 (Baixa)"});
+        priorityBox.setSelectedIndex(1);
+
+        JPanel form = new JPanel(new GridBagLayout());
+        form.setOpaque(false);
+        GridBagConstraints gbc = new GridBagConstraints();
+        gbc.insets = new Insets(4, 4, 4, 4);
+        gbc.fill = GridBagConstraints.HORIZONTAL;
+        addRow(form, gbc, "Tipo:", kindBox);
+        addRow(form, gbc, "Quando:", whenInput);
+        gbc.gridx = 1;
+        gbc.gridy++;
+        JLabel help = new JLabel(WHEN_HELP);
+        help.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+        form.add(help, gbc);
+        addRow(form, gbc, "Descrição:", descriptionInput);
+        addRow(form, gbc, "Tags:", tagsInput);
+        addRow(form, gbc, "Prioridade:", priorityBox);
+
+        JList<Reminders.Rule> rulesList = new JList<>(rulesModel);
+        rulesList.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        rulesList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index,
+                                                          boolean isSelected, boolean cellHasFocus) {
+                return super.getListCellRendererComponent(list, describe((Reminders.Rule) value), index,
+                        isSelected, cellHasFocus);
+            }
+        });
+        reload();
+
+        JButton addButton = new JButton("Adicionar");
+        addButton.addActionListener(e -> {
+            String description = descriptionInput.getText().trim();
+            if (description.isEmpty()) {
+                JOptionPane.showMessageDialog(frame, "Por favor, insira uma descrição.", "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            try {
+                Recurrence when = Recurrence.parse(whenInput.getText(), ZoneId.systemDefault());
+                reminders.add((Reminders.Kind) kindBox.getSelectedItem(), when, description,
+                        tagsInput.getText().trim(), priorityBox.getSelectedIndex() + 1);
+            } catch (IllegalArgumentException ex) {
+                JOptionPane.showMessageDialog(frame, ex.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+            descriptionInput.setText("");
+            tagsInput.setText("");
+            reload();
+        });
+
+        JButton removeButton = new JButton("Remover");
+        removeButton.addActionListener(e -> {
+            for (Reminders.Rule rule : rulesList.getSelectedValuesList()) {
+                reminders.remove(rule);
+            }
+            reload();
+        });
+
+        JButton closeButton = new JButton("FECHAR");
+        closeButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        closeButton.setForeground(Color.WHITE);
+        closeButton.setBackground(new Color(20, 20, 20));
+        closeButton.setFocusPainted(false);
+        closeButton.setBorder(BorderFactory.createEmptyBorder(8, 25, 8, 25));
+        closeButton.addActionListener(e -> frame.dispose());
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setOpaque(false);
+        buttonPanel.add(addButton);
+        buttonPanel.add(removeButton);
+        buttonPanel.add(closeButton);
+
+        panel.add(form, BorderLayout.NORTH);
+        panel.add(new JScrollPane(rulesList), BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        frame.add(panel);
+    }
+
+    public void show() {
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private void reload() {
+        rulesModel.clear();
+        for (Reminders.Rule rule : reminders.rules()) {
+            rulesModel.addElement(rule);
+        }
+    }
+
+    private String describe(Reminders.Rule rule) {
+        long next = reminders.nextRun(rule);
+        String nextText = next >= 0
+                ? NEXT_FORMAT.format(Instant.ofEpochMilli(next).atZone(ZoneId.systemDefault()))
+                : "-";
+        return rule.description() + "  [" + rule.kind() + ": " + rule.when() + ", próximo " + nextText + "]";
+    }
+
+    private static void addRow(JPanel form, GridBagConstraints gbc, String label, JComponent field) {
+        gbc.gridy++;
+        gbc.gridx = 0;
+        gbc.weightx = 0;
+        form.add(new JLabel(label), gbc);
+        gbc.gridx = 1;
+        gbc.weightx = 1;
+        form.add(field, gbc);
+    }
+}
@@ -0,0 +1,301 @@
+package todoapp;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.text.Normalizer;
+import java.util.*;
+
+// Índice de busca textual do histórico: cada palavra da descrição e das tags
+// aponta para a lista ordenada dos IDs que a contêm. As palavras ficam num
+// TreeMap, então um termo incompleto ("reun") acha todas as que começam com
+// ele ("reunião", "reuniões") com um subMap.
+//
+// O índice é gravado junto com cada snapshot do histórico (tasks_history.idx)
+// com o checksum do snapshot, para não ser reconstruído a cada abertura.
+public class SearchIndex {
+    private static final int MAGIC = 0x54444931; // "TDI1"
+    private static final int VERSION = 1;
+    private static final int OFF_CHECKSUM = 8;
+    private static final int MAX_TOKEN_LENGTH = 64;
+    private static final int MIN_PREFIX_LENGTH = 2; // Termos de uma letra só casam com a palavra exata
+
+    private final TreeMap<String, Postings> tokens = new TreeMap<>();
+    private int taskCount; // IDs cobertos: 0..taskCount-1
+
+    public void add(int id, String description, String tags) {
+        for (String token : tokensOf(description, tags)) {
+            tokens.computeIfAbsent(token, t -> new Postings()).insert(id);
+        }
+        taskCount = Math.max(taskCount, id + 1);
+    }
+
+    // Índice montado do zero (ex.: a partir de um retrato, fora da thread que altera)
+    public static SearchIndex of(TaskHistory history) {
+        SearchIndex index = new SearchIndex();
+        for (int id = 0; id < history.size(); id++) {
+            index.add(id, history.description(id), history.tags(id));
+        }
+        return index;
+    }
+
+    // Reindexa só as palavras que mudaram com a nova descrição
+    public void update(int id, String oldDescription, String newDescription, String tags) {
+        Set<String> before = tokensOf(oldDescription, tags);
+        Set<String> after = tokensOf(newDescription, tags);
+        for (String token : before) {
+            if (!after.contains(token)) {
+                Postings postings = tokens.get(token);
+                if (postings != null && postings.remove(id) && postings.size == 0) {
+                    tokens.remove(token);
+                }
+            }
+        }
+        for (String token : after) {
+            if (!before.contains(token)) {
+                tokens.computeIfAbsent(token, t -> new Postings()).insert(id);
+            }
+        }
+    }
+
+    // Acrescenta um índice inteiro depois das tarefas deste, com os IDs
+    // deslocados de `base` (ex.: o dia recém-arquivado no índice do arquivo)
+    public void append(SearchIndex other, int base) {
+        for (Map.Entry<String, Postings> entry : other.tokens.entrySet()) {
+            Postings source = entry.getValue();
+            Postings target = tokens.computeIfAbsent(entry.getKey(), t -> new Postings());
+            for (int i = 0; i < source.size; i++) {
+                target.insert(base + source.ids[i]);
+            }
+        }
+        taskCount = Math.max(taskCount, base + other.taskCount);
+    }
+
+    public int taskCount() {
+        return taskCount;
+    }
+
+    // IDs que casam com todos os termos, no máximo `limit`. Palavra exata vale
+    // mais que prefixo; no empate, as tarefas mais recentes vêm primeiro.
+    public int[] search(String query, int limit) {
+        long[] hits = searchScored(query, limit);
+        int[] ids = new int[hits.length];
+        for (int i = 0; i < hits.length; i++) {
+            ids[i] = hitId(hits[i]);
+        }
+        return ids;
+    }
+
+    // Como search(), mas cada resultado leva a pontuação junto: (pontuação << 32) | ID.
+    // Permite juntar os resultados de vários índices (segmentos arquivados).
+    public long[] searchScored(String query, int limit) {
+        List<String> terms = new ArrayList<>(tokenize(query));
+        if (terms.isEmpty() || limit <= 0) return new long[0];
+
+        BitSet[] exact = new BitSet[terms.size()];
+        BitSet matches = null;
+        for (int t = 0; t < terms.size(); t++) {
+            String term = terms.get(t);
+            Postings exactPostings = tokens.get(term);
+            exact[t] = exactPostings != null ? exactPostings.toBitSet() : new BitSet();
+
+            BitSet any = (BitSet) exact[t].clone();
+            if (term.length() >= MIN_PREFIX_LENGTH) {
+                for (Postings postings : tokens.subMap(term, false, term + Character.MAX_VALUE, false).values()) {
+                    postings.addTo(any);
+                }
+            }
+            if (matches == null) {
+                matches = any;
+            } else {
+                matches.and(any);
+            }
+            if (matches.isEmpty()) return new long[0];
+        }
+
+        // Pontuação de terms.size() (só prefixos) a 2 * terms.size() (só exatas):
+        // um balde por pontuação, cada um preenchido do ID mais novo para o mais antigo
+        int minScore = terms.size();
+        int total = matches.cardinality();
+        int[][] buckets = new int[terms.size() + 1][];
+        int[] bucketSizes = new int[terms.size() + 1];
+        for (int id = matches.length() - 1; id >= 0; id = matches.previousSetBit(id - 1)) {
+            int score = minScore;
+            for (BitSet bits : exact) {
+                if (bits.get(id)) score++;
+            }
+            int b = score - minScore;
+            if (buckets[b] == null) buckets[b] = new int[Math.min(limit, total)];
+            if (bucketSizes[b] < limit) {
+                buckets[b][bucketSizes[b]++] = id;
+            }
+        }
+
+        long[] result = new long[Math.min(limit, total)];
+        int count = 0;
+        for (int b = buckets.length - 1; b >= 0 && count < result.length; b--) {
+            long score = minScore + b;
+            for (int i = 0; i < bucketSizes[b] && count < result.length; i++) {
+                result[count++] = (score << 32) | buckets[b][i];
+            }
+        }
+        return result;
+    }
+
+    public static int hitId(long hit) {
+        return (int) hit;
+    }
+
+    // Palavras da descrição e das tags, sem acentos e em minúsculas
+    private static Set<String> tokensOf(String description, String tags) {
+        Set<String> result = tokenize(description);
+        result.addAll(tokenize(tags));
+        return result;
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFD).toLowerCase(Locale.ROOT);
+        StringBuilder token = new StringBuilder();
+        for (int i = 0; i <= normalized.length(); i++) {
+            char c = i < normalized.length() ? normalized.charAt(i) : ' ';
+            if (Character.getType(c) == Character.NON_SPACING_MARK) continue; // Acento separado da letra pelo NFD
+            if (Character.isLetterOrDigit(c)) {
+                token.append(c);
+            } else if (token.length() > 0) {
+                if (token.length() <= MAX_TOKEN_LENGTH) {
+                    result.add(token.toString());
+                }
+                token.setLength(0);
+            }
+        }
+        return result;
+    }
+
+    // Persistência
+
+    // Imagem binária do índice; o checksum do snapshot correspondente é
+    // preenchido depois com stamp(), quando o snapshot já foi gerado
+    public byte[] toByteArray() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(0); // Checksum do snapshot
+            out.writeInt(taskCount);
+            out.writeInt(tokens.size());
+            for (Map.Entry<String, Postings> entry : tokens.entrySet()) {
+                out.writeUTF(entry.getKey());
+                entry.getValue().writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    public static void stamp(byte[] index, long historyChecksum) {
+        ByteBuffer.wrap(index).putLong(OFF_CHECKSUM, historyChecksum);
+    }
+
+    // Lê o índice gravado; devolve null se ele não existir ou não corresponder
+    // ao snapshot (ex.: o app fechou entre a gravação do snapshot e a do índice)
+    public static SearchIndex read(File file, long historyChecksum, int snapshotSize) {
+        if (!file.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (in.readLong() != historyChecksum) return null;
+
+            SearchIndex index = new SearchIndex();
+            index.taskCount = in.readInt();
+            if (index.taskCount != snapshotSize) return null;
+
+            int tokenCount = in.readInt();
+            for (int i = 0; i < tokenCount; i++) {
+                String token = in.readUTF();
+                index.tokens.put(token, Postings.readFrom(in));
+            }
+            return index;
+        } catch (IOException e) {
+            System.err.println("Erro ao ler o índice de busca: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    // Lista ordenada de IDs. Tarefas novas sempre têm o maior ID, então o caso
+    // comum é acrescentar no fim; edições inserem/removem no meio.
+    private static class Postings {
+        int[] ids = new int[2];
+        int size;
+
+        void insert(int id) {
+            if (size > 0 && ids[size - 1] == id) return;
+            int pos = size > 0 && ids[size - 1] < id ? size : Arrays.binarySearch(ids, 0, size, id);
+            if (pos >= 0 && pos < size) return; // Já estava
+            if (pos < 0) pos = -pos - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+            ids[pos] = id;
+            size++;
+        }
+
+        boolean remove(int id) {
+            int pos = Arrays.binarySearch(ids, 0, size, id);
+            if (pos < 0) return false;
+            System.arraycopy(ids, pos + 1, ids, pos, size - pos - 1);
+            size--;
+            return true;
+        }
+
+        BitSet toBitSet() {
+            BitSet bits = new BitSet();
+            addTo(bits);
+            return bits;
+        }
+
+        void addTo(BitSet bits) {
+            for (int i = 0; i < size; i++) {
+                bits.set(ids[i]);
+            }
+        }
+
+        // Diferenças entre IDs consecutivos em varint: a maioria cabe em 1 ou 2 bytes
+        void writeTo(DataOutputStream out) throws IOException {
+            out.writeInt(size);
+            int previous = 0;
+            for (int i = 0; i < size; i++) {
+                int delta = ids[i] - previous;
+                previous = ids[i];
+                while ((delta & ~0x7F) != 0) {
+                    out.writeByte((delta & 0x7F) | 0x80);
+                    delta >>>= 7;
+                }
+                out.writeByte(delta);
+            }
+        }
+
+        static Postings readFrom(DataInputStream in) throws IOException {
+            Postings postings = new Postings();
+            postings.size = in.readInt();
+            postings.ids = new int[Math.max(2, postings.size)];
+            int previous = 0;
+            for (int i = 0; i < postings.size; i++) {
+                int delta = 0;
+                int shift = 0;
+                int b;
+                do {
+                    b = in.readUnsignedByte();
+                    delta |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while ((b & 0x80) != 0);
+                previous += delta;
+                postings.ids[i] = previous;
+            }
+            return postings;
+        }
+    }
+}
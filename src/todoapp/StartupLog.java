@@ -0,0 +1,26 @@
+package todoapp;
+
+import java.lang.management.ManagementFactory;
+
+// Tempos da inicialização no console: a duração de cada fase e o tempo desde
+// o início da JVM, para comparar a abertura do app entre versões. Só com
+// -Dtodoapp.startup.log=true: sem isso, trocar de lista, o TaskServer sem
+// janela e os benchmarks não escrevem nada no console.
+public final class StartupLog {
+    public static final boolean ENABLED = Boolean.getBoolean("todoapp.startup.log");
+
+    private StartupLog() {
+    }
+
+    public static void phase(String name, long startNanos) {
+        if (!ENABLED) return;
+        long elapsed = (System.nanoTime() - startNanos) / 1_000_000;
+        long sinceJvmStart = System.currentTimeMillis() - ManagementFactory.getRuntimeMXBean().getStartTime();
+        System.out.println("[inicialização] " + name + ": " + elapsed + " ms (" + sinceJvmStart + " ms desde o início)");
+    }
+
+    // Eventos da abertura que não são fases (ex.: conversão do histórico antigo)
+    public static void note(String message) {
+        if (ENABLED) System.out.println("[inicialização] " + message);
+    }
+}
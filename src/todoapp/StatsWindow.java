@@ -0,0 +1,159 @@
+package todoapp;
+
+import javax.swing.*;
+import javax.swing.text.BadLocationException;
+import javax.swing.text.Style;
+import javax.swing.text.StyleConstants;
+import javax.swing.text.StyledDocument;
+import java.awt.*;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Map;
+
+// Janela "Estatísticas": conclusões por dia e por semana, tempo médio até
+// concluir e taxa de conclusão por prioridade e por tag. Só lê os agregados
+// do TaskStats, então abre na hora qualquer que seja o tamanho do histórico.
+public class StatsWindow {
+    private static final int DAYS = 7;
+    private static final int WEEKS = 8;
+    private static final DateTimeFormatter DAY_FORMAT = DateTimeFormatter.ofPattern("dd/MM");
+    private static final String[] PRIORITY_NAMES = {"", "1 (Alta)", "2 (Média)", "3 (Baixa)"};
+
+    private final JFrame frame;
+
+    public StatsWindow(TaskStats stats) {
+        frame = new JFrame("Estatísticas");
+        frame.setSize(500, 600);
+        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
+        frame.setLayout(new BorderLayout());
+
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.setBackground(new Color(248, 200, 97)); // Mesmo fundo da janela "Ver todas"
+        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
+
+        JTextPane textPane = new JTextPane();
+        textPane.setEditable(false);
+        textPane.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+
+        StyledDocument doc = textPane.getStyledDocument();
+        Style defaultStyle = doc.addStyle("default", null);
+        StyleConstants.setFontFamily(defaultStyle, "Segoe UI Emoji");
+        StyleConstants.setFontSize(defaultStyle, 15);
+        Style headerStyle = doc.addStyle("header", defaultStyle);
+        StyleConstants.setBold(headerStyle, true);
+        StyleConstants.setFontSize(headerStyle, 17);
+
+        try {
+            append(doc, headerStyle, "Resumo\n");
+            append(doc, defaultStyle, summary(stats));
+            append(doc, headerStyle, "\nConcluídas nos últimos " + DAYS + " dias\n");
+            append(doc, defaultStyle, perDay(stats));
+            append(doc, headerStyle, "\nConcluídas nas últimas " + WEEKS + " semanas\n");
+            append(doc, defaultStyle, perWeek(stats));
+            append(doc, headerStyle, "\nPor prioridade\n");
+            append(doc, defaultStyle, perPriority(stats));
+            append(doc, headerStyle, "\nPor tag\n");
+            append(doc, defaultStyle, perTag(stats));
+        } catch (BadLocationException e) {
+            e.printStackTrace();
+        }
+        textPane.setCaretPosition(0);
+
+        JScrollPane scrollPane = new JScrollPane(textPane);
+        scrollPane.setBorder(BorderFactory.createEmptyBorder());
+
+        JButton closeButton = new JButton("FECHAR");
+        closeButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
+        closeButton.setForeground(Color.WHITE);
+        closeButton.setBackground(new Color(20, 20, 20));
+        closeButton.setFocusPainted(false);
+        closeButton.setBorder(BorderFactory.createEmptyBorder(8, 25, 8, 25));
+        closeButton.addActionListener(e -> frame.dispose());
+
+        JPanel buttonPanel = new JPanel();
+        buttonPanel.setBackground(new Color(248, 200, 97));
+        buttonPanel.add(closeButton);
+
+        panel.add(scrollPane, BorderLayout.CENTER);
+        panel.add(buttonPanel, BorderLayout.SOUTH);
+        frame.add(panel);
+    }
+
+    public void show() {
+        frame.setLocationRelativeTo(null);
+        frame.setVisible(true);
+    }
+
+    private static void append(StyledDocument doc, Style style, String text) throws BadLocationException {
+        doc.insertString(doc.getLength(), text, style);
+    }
+
+    private static String summary(TaskStats stats) {
+        StringBuilder text = new StringBuilder();
+        text.append("Tarefas: ").append(stats.total())
+                .append(" - concluídas: ").append(stats.completed())
+                .append(" (").append(rate(stats.completed(), stats.total())).append(")\n");
+        long average = stats.averageCompletionMillis();
+        text.append("Tempo médio até concluir: ").append(average < 0 ? "-" : duration(average)).append("\n");
+        return text.toString();
+    }
+
+    private static String perDay(TaskStats stats) {
+        LocalDate today = LocalDate.now();
+        int[] counts = stats.completionsPerPeriod(today, 1, DAYS);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < DAYS; i++) {
+            LocalDate day = today.minusDays(DAYS - 1 - i);
+            text.append(DAY_FORMAT.format(day)).append(": ").append(bar(counts[i])).append("\n");
+        }
+        return text.toString();
+    }
+
+    private static String perWeek(TaskStats stats) {
+        LocalDate today = LocalDate.now();
+        int[] counts = stats.completionsPerPeriod(today, 7, WEEKS);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < WEEKS; i++) {
+            LocalDate end = today.minusDays(7L * (WEEKS - 1 - i));
+            text.append(DAY_FORMAT.format(end.minusDays(6))).append(" a ").append(DAY_FORMAT.format(end))
+                    .append(": ").append(bar(counts[i])).append("\n");
+        }
+        return text.toString();
+    }
+
+    private static String perPriority(TaskStats stats) {
+        StringBuilder text = new StringBuilder();
+        for (int p = 1; p < PRIORITY_NAMES.length; p++) {
+            int[] counts = stats.priority(p);
+            text.append(PRIORITY_NAMES[p]).append(": ").append(counts[1]).append(" de ").append(counts[0])
+                    .append(" (").append(rate(counts[1], counts[0])).append(")\n");
+        }
+        return text.toString();
+    }
+
+    private static String perTag(TaskStats stats) {
+        StringBuilder text = new StringBuilder();
+        for (Map.Entry<String, int[]> entry : stats.tags().entrySet()) {
+            int[] counts = entry.getValue();
+            text.append(entry.getKey()).append(": ").append(counts[1]).append(" de ").append(counts[0])
+                    .append(" (").append(rate(counts[1], counts[0])).append(")\n");
+        }
+        return text.length() > 0 ? text.toString() : "Nenhuma tarefa com tags.\n";
+    }
+
+    private static String rate(int completed, int total) {
+        return total > 0 ? (completed * 100L / total) + "%" : "-";
+    }
+
+    private static String bar(int count) {
+        return "▇".repeat(Math.min(count, 30)) + " " + count;
+    }
+
+    private static String duration(long millis) {
+        long minutes = millis / 60_000;
+        if (minutes < 60) return minutes + " min";
+        long hours = minutes / 60;
+        if (hours < 48) return hours + " h " + (minutes % 60) + " min";
+        return (hours / 24) + " dias " + (hours % 24) + " h";
+    }
+}
@@ -0,0 +1,70 @@
+package todoapp;
+
+import java.util.*;
+
+// Índice invertido das tarefas: para cada tag, um bitmap com os IDs que a
+// têm, e um bitmap por prioridade. Um filtro "tag A e B, prioridade 1" vira
+// só ANDs de bitmaps, sem percorrer as tarefas nem quebrar strings.
+public class TagIndex {
+    public static final int ANY_PRIORITY = -1;
+
+    private final Map<String, BitSet> byTag = new HashMap<>();
+    private BitSet[] byPriority = new BitSet[4];
+
+    public void add(int id, String tags, int priority) {
+        for (String tag : parseTags(tags)) {
+            byTag.computeIfAbsent(tag, t -> new BitSet()).set(id);
+        }
+        priorityBucket(priority).set(id);
+    }
+
+    // IDs que têm todas as tags e a prioridade pedidas. Devolve null quando
+    // não há filtro nenhum (tudo passa); o resultado pode ser alterado por quem chamou.
+    public BitSet query(Collection<String> tags, int priority) {
+        if (tags.isEmpty() && priority == ANY_PRIORITY) return null;
+
+        BitSet result = null;
+        if (priority != ANY_PRIORITY) {
+            result = (BitSet) priorityBucket(priority).clone();
+        }
+        for (String tag : tags) {
+            BitSet ids = byTag.get(tag);
+            if (ids == null) return new BitSet(); // Tag que nenhuma tarefa tem
+            if (result == null) {
+                result = (BitSet) ids.clone();
+            } else {
+                result.and(ids);
+            }
+        }
+        return result;
+    }
+
+    public Set<String> tags() {
+        return Collections.unmodifiableSet(byTag.keySet());
+    }
+
+    // Tags separadas por vírgula, sem espaços nas pontas e sem diferenciar maiúsculas
+    public static List<String> parseTags(String tags) {
+        List<String> parsed = new ArrayList<>();
+        for (String tag : tags.split(",")) {
+            String normalized = tag.trim().toLowerCase(Locale.ROOT);
+            if (!normalized.isEmpty() && !parsed.contains(normalized)) {
+                parsed.add(normalized);
+            }
+        }
+        return parsed;
+    }
+
+    // A prioridade vem gravada num byte e históricos antigos podem trazer
+    // qualquer valor: os negativos dividem o balde 0 em vez de derrubar a carga
+    private BitSet priorityBucket(int priority) {
+        priority = Math.max(0, priority);
+        if (priority >= byPriority.length) {
+            byPriority = Arrays.copyOf(byPriority, priority + 1);
+        }
+        if (byPriority[priority] == null) {
+            byPriority[priority] = new BitSet();
+        }
+        return byPriority[priority];
+    }
+}
@@ -0,0 +1,20 @@
+package todoapp;
+
+// Leitura das tarefas por posição, comum ao que está em memória (TaskStore),
+// a um snapshot mapeado (HistoryStore) e ao histórico inteiro com os
+// segmentos arquivados (HistoryArchive)
+public interface TaskHistory {
+    int size();
+
+    String description(int index);
+
+    String tags(int index);
+
+    int priority(int index);
+
+    long createdAt(int index);
+
+    long completedAt(int index);
+
+    boolean isCompleted(int index);
+}
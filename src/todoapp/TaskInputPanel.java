@@ -8,6 +8,7 @@ public class TaskInputPanel extends JPanel {
     private JButton openActionsButton; // botão redondo com "+"
     private JButton finishButton;      // botão de finalizar dia (precisa estar acessível)
     private ActionListener finishDayListener; // armazena listener se botão ainda não foi criado
+    private ActionListener remindersListener; // idem, para o botão "Lembretes"
     private TaskList taskList;
 
     public TaskInputPanel(TaskList taskList) {
@@ -60,7 +61,7 @@ public class TaskInputPanel extends JPanel {
 
     private void openTaskManagerWindow() {
         JFrame taskFrame = new JFrame("Gerenciar Tarefas");
-        taskFrame.setSize(500, 350);
+        taskFrame.setSize(500, 620); // Espaço para as linhas de importar/exportar, estatísticas e diagnóstico
         taskFrame.setLocationRelativeTo(null);
         taskFrame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
 
@@ -96,9 +97,15 @@ public class TaskInputPanel extends JPanel {
         JButton deleteButton = new JButton("Excluir");
         finishButton = new JButton("Finalizar dia");
         JButton viewAllButton = new JButton("Ver todas");
+        JButton importButton = new JButton("Importar");
+        JButton exportButton = new JButton("Exportar");
+        JButton statsButton = new JButton("Estatísticas");
+        JButton remindersButton = new JButton("Lembretes");
+        JButton diagnosticsButton = new JButton("Diagnóstico");
 
         // Estilo dos botões
-        JButton[] buttons = {addButton, deleteButton, finishButton, viewAllButton};
+        JButton[] buttons = {addButton, deleteButton, finishButton, viewAllButton, importButton, exportButton,
+                statsButton, remindersButton, diagnosticsButton};
         for (JButton btn : buttons) {
             btn.setFont(new Font(Font.SERIF, Font.BOLD, 16));
             btn.setPreferredSize(new Dimension(250, 70));
@@ -110,6 +117,11 @@ public class TaskInputPanel extends JPanel {
         deleteButton.setForeground(Color.WHITE);
         finishButton.setBackground(new Color(129, 174, 45));
         viewAllButton.setBackground(new Color(236, 179, 16));
+        importButton.setBackground(new Color(207, 196, 177));
+        exportButton.setBackground(new Color(207, 196, 177));
+        statsButton.setBackground(new Color(236, 179, 16));
+        remindersButton.setBackground(new Color(236, 179, 16));
+        diagnosticsButton.setBackground(new Color(207, 196, 177));
 
         // Painel com os campos e botões
         JPanel panel = new JPanel(new GridBagLayout());
@@ -159,9 +171,29 @@ public class TaskInputPanel extends JPanel {
         gbc.gridx = 1;
         panel.add(viewAllButton, gbc);
 
+// Linha com botões "Importar" e "Exportar"
+        gbc.gridy++;
+        gbc.gridx = 0;
+        panel.add(importButton, gbc);
+        gbc.gridx = 1;
+        panel.add(exportButton, gbc);
+
+// Linha com os botões "Estatísticas" e "Lembretes"
+        gbc.gridy++;
+        gbc.gridx = 0;
+        panel.add(statsButton, gbc);
+        gbc.gridx = 1;
+        panel.add(remindersButton, gbc);
+
+// Linha com o botão "Diagnóstico"
+        gbc.gridy++;
+        gbc.gridx = 0;
+        gbc.gridwidth = 2;
+        panel.add(diagnosticsButton, gbc);
+
 // Painel externo que centraliza tudo
         JPanel innerPanel = new JPanel(new GridBagLayout());
-        innerPanel.setPreferredSize(new Dimension(400, 450)); // menor largura
+        innerPanel.setPreferredSize(new Dimension(400, 620)); // menor largura
         innerPanel.add(panel);
 
         taskFrame.getContentPane().removeAll(); // Limpa se tiver algo
@@ -199,16 +231,49 @@ public class TaskInputPanel extends JPanel {
 
 
         viewAllButton.addActionListener(e -> taskList.showAllTasks());
+        statsButton.addActionListener(e -> taskList.showStatistics());
+        diagnosticsButton.addActionListener(e -> new DiagnosticsWindow().show());
+
+        importButton.addActionListener(e -> {
+            JFileChooser chooser = createTransferChooser();
+            if (chooser.showOpenDialog(taskFrame) == JFileChooser.APPROVE_OPTION) {
+                taskList.importTasks(chooser.getSelectedFile());
+            }
+        });
+
+        exportButton.addActionListener(e -> {
+            JFileChooser chooser = createTransferChooser();
+            chooser.setSelectedFile(new java.io.File("tarefas.csv"));
+            if (chooser.showSaveDialog(taskFrame) == JFileChooser.APPROVE_OPTION) {
+                taskList.exportTasks(chooser.getSelectedFile());
+            }
+        });
 
         // Aplica listener se já foi definido
         if (finishDayListener != null) {
             finishButton.addActionListener(finishDayListener);
         }
+        if (remindersListener != null) {
+            remindersButton.addActionListener(remindersListener);
+        }
 
         innerPanel.add(panel);
         taskFrame.setVisible(true);
     }
 
+    // CSV ou JSON Lines; o formato é escolhido pela extensão do arquivo
+    private JFileChooser createTransferChooser() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter(
+                "CSV ou JSON Lines (*.csv, *.jsonl)", "csv", "jsonl", "json"));
+        return chooser;
+    }
+
+    // Como o "Finalizar dia": vale para as próximas janelas abertas
+    public void setRemindersAction(ActionListener listener) {
+        this.remindersListener = listener;
+    }
+
     public void setFinishDayAction(ActionListener listener) {
         this.finishDayListener = listener;
         if (finishButton != null) {
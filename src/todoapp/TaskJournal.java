@@ -0,0 +1,429 @@
+package todoapp;
+
+import java.io.*;
+import java.nio.file.AccessDeniedException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+// Diário (append-only) das alterações feitas no histórico de tarefas.
+// Cada mutação vira uma linha curta no fim do arquivo, em vez de reescrever
+// o histórico inteiro. De tempos em tempos o TaskList gera um snapshot novo
+// e o diário é reiniciado.
+//
+// Nada é gravado na thread do Swing: os registros ficam pendentes e o
+// PersistenceWorker grava tudo de uma vez depois da janela de agrupamento.
+public class TaskJournal {
+    static final String OP_SNAPSHOT = "S";
+    static final String OP_ADD = "A";
+    static final String OP_TOGGLE = "T";
+    static final String OP_UPDATE = "U";
+    private static final Metrics.Timer FLUSH = Metrics.timer("gravacao.flush");
+    private static final Metrics.Timer APPEND = Metrics.timer("gravacao.diario");
+    private static final Metrics.Timer HISTORY = Metrics.timer("gravacao.historico");
+    private static final Metrics.Timer MAIN = Metrics.timer("gravacao.principal");
+    private static final Metrics.Counter RECORDS = Metrics.counter("gravacao.registros");
+
+    // Destino do dia fechado por seal(): o segmento compactado, o índice de
+    // busca dele e o manifesto do arquivo já com o segmento novo
+    public static final class Seal {
+        private final File segmentFile;
+        private final File indexFile;
+        private final File statsFile;
+        private final byte[] stats;
+        private final File manifestFile;
+        private final List<String> manifestLines;
+
+        public Seal(File segmentFile, File indexFile, File statsFile, byte[] stats,
+                    File manifestFile, List<String> manifestLines) {
+            this.segmentFile = segmentFile;
+            this.indexFile = indexFile;
+            this.statsFile = statsFile;
+            this.stats = stats;
+            this.manifestFile = manifestFile;
+            this.manifestLines = manifestLines;
+        }
+    }
+
+    private final File file;
+    private final File historyFile;
+    private final File searchIndexFile;
+    private final File mainFile;
+    private final int compactThreshold;
+    private final PersistenceWorker worker;
+    private int recordCount; // Registros desde o último snapshot (thread do Swing)
+
+    // Alterações ainda não gravadas: a thread do Swing produz, o worker consome
+    private final List<String> pendingRecords = new ArrayList<>();
+    private byte[] pendingHistory;
+    private TaskView pendingView; // Snapshot ainda por montar (scheduleSnapshot)
+    private byte[] pendingSearchIndex;
+    private Seal pendingSeal;
+    private volatile boolean sealed; // Resultado do último seal(), escrito pelo worker
+    private int pendingHistorySize;
+    private int snapshotMark; // Registros anteriores ao snapshot pendente
+    private List<String> pendingMain;
+
+    private int diskSnapshotSize; // Tamanho do snapshot em disco (só o worker altera depois da carga)
+
+    public TaskJournal(String path, String historyPath, String searchIndexPath, String mainPath,
+                       int compactThreshold, long windowMillis) {
+        this.file = new File(path);
+        this.historyFile = new File(historyPath);
+        this.searchIndexFile = new File(searchIndexPath);
+        this.mainFile = new File(mainPath);
+        this.compactThreshold = compactThreshold;
+        this.worker = new PersistenceWorker(this::flush, windowMillis);
+    }
+
+    // Lê os registros do diário. O primeiro registro ("S;n") indica quantas
+    // tarefas o snapshot tinha quando o diário foi iniciado; se o snapshot
+    // atual tiver outro tamanho, ele já contém estas alterações e o diário é ignorado.
+    public List<String> readRecords(int snapshotSize) {
+        List<String> records = new ArrayList<>();
+        recordCount = 0;
+        diskSnapshotSize = snapshotSize;
+        if (!file.exists()) return records;
+
+        boolean stale = false;
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String header = reader.readLine();
+            if (header == null) return records;
+
+            String[] parts = header.split(";");
+            if (!parts[0].equals(OP_SNAPSHOT) || parts.length < 2 || Integer.parseInt(parts[1]) != snapshotSize) {
+                stale = true;
+            }
+
+            String line;
+            while (!stale && (line = reader.readLine()) != null) {
+                if (!line.isEmpty()) {
+                    records.add(line);
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("Erro ao ler o diário de tarefas: " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("carga", e);
+        }
+
+        if (stale) {
+            System.err.println("Diário descartado: não corresponde ao snapshot atual.");
+            resetJournal(snapshotSize);
+            return records;
+        }
+        recordCount = records.size();
+        return records;
+    }
+
+    // Corta a última linha do diário (um registro gravado pela metade), para o
+    // próximo registro não ser emendado nela. Chamado na carga, depois de
+    // readRecords() e antes de qualquer append().
+    public void dropLastRecord() {
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            long end = raf.length();
+            if (end > 0) {
+                raf.seek(end - 1);
+                if (raf.read() == '\n') end--; // A linha pode ter sido cortada só depois do texto
+            }
+            long start = end;
+            while (start > 0) {
+                raf.seek(start - 1);
+                if (raf.read() == '\n') break;
+                start--;
+            }
+            raf.setLength(start);
+            recordCount = Math.max(0, recordCount - 1);
+        } catch (IOException e) {
+            System.err.println("Erro ao cortar o diário de tarefas: " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("carga", e);
+        }
+    }
+
+    public void append(String record) {
+        synchronized (this) {
+            pendingRecords.add(record);
+        }
+        recordCount++;
+        worker.markDirty();
+    }
+
+    // Agenda um snapshot completo; o diário é reiniciado assim que ele for gravado.
+    // O retrato é imutável, então o snapshot, o índice de busca (gravado logo
+    // depois, marcado com o checksum do snapshot) e o arquivo principal são
+    // montados na thread de gravação. Tem de ser o retrato já publicado com
+    // todas as alterações registradas até aqui.
+    public void scheduleSnapshot(TaskView view) {
+        synchronized (this) {
+            pendingView = view;
+            pendingHistory = null;
+            pendingSearchIndex = null;
+            pendingSeal = null;
+            snapshotMark = pendingRecords.size();
+            pendingMain = null; // Sai do retrato, a não ser que scheduleMainFile() chegue depois
+        }
+        recordCount = 0;
+        worker.markDirty();
+    }
+
+    // Fecha o dia, esperando a gravação: o snapshot quente (que já tem tudo) é
+    // gravado, copiado compactado para o segmento e registrado no manifesto;
+    // só então o snapshot quente e o diário recomeçam vazios. Devolve false se
+    // o dia não pôde ser arquivado (o snapshot quente continua com as tarefas).
+    public boolean seal(byte[] history, int historySize, byte[] searchIndex, List<String> mainLines, Seal seal) {
+        sealed = false;
+        schedule(history, historySize, searchIndex, mainLines, seal);
+        worker.flushNow();
+        return sealed;
+    }
+
+    private void schedule(byte[] historyBytes, int historySize, byte[] searchIndex, List<String> mainLines, Seal seal) {
+        synchronized (this) {
+            pendingView = null;
+            pendingHistory = historyBytes;
+            pendingSearchIndex = searchIndex;
+            pendingSeal = seal;
+            pendingHistorySize = historySize;
+            snapshotMark = pendingRecords.size();
+            pendingMain = mainLines;
+        }
+        recordCount = 0;
+        worker.markDirty();
+    }
+
+    public void scheduleMainFile(List<String> mainLines) {
+        synchronized (this) {
+            pendingMain = mainLines;
+        }
+        worker.markDirty();
+    }
+
+    public boolean needsCompaction() {
+        return recordCount >= compactThreshold;
+    }
+
+    // Grava imediatamente o que estiver pendente (ex.: ao fechar a janela)
+    public void flushNow() {
+        worker.flushNow();
+    }
+
+    public void close() {
+        worker.shutdown();
+    }
+
+    // Executado pelo PersistenceWorker
+    private void flush() {
+        long flushStart = FLUSH.start();
+        List<String> before;
+        List<String> after;
+        byte[] history;
+        byte[] searchIndex;
+        TaskView view;
+        Seal seal;
+        List<String> main;
+        int historySize;
+
+        synchronized (this) {
+            int mark = pendingHistory != null || pendingView != null ? snapshotMark : pendingRecords.size();
+            before = new ArrayList<>(pendingRecords.subList(0, mark));
+            after = new ArrayList<>(pendingRecords.subList(mark, pendingRecords.size()));
+            history = pendingHistory;
+            searchIndex = pendingSearchIndex;
+            view = pendingView;
+            seal = pendingSeal;
+            historySize = pendingHistorySize;
+            main = pendingMain;
+
+            pendingRecords.clear();
+            pendingHistory = null;
+            pendingView = null;
+            pendingSearchIndex = null;
+            pendingSeal = null;
+            pendingMain = null;
+        }
+
+        if (view != null) {
+            HistoryStore.Builder builder = new HistoryStore.Builder();
+            builder.addAll(view);
+            history = builder.toByteArray();
+            historySize = view.size();
+            searchIndex = SearchIndex.of(view).toByteArray();
+            if (main == null) main = mainLines(view);
+        }
+
+        // Se o snapshot falhar, os registros seguintes continuam no diário antigo,
+        // que ainda é coerente com o snapshot anterior
+        appendRecords(before);
+        long historyStart = HISTORY.start();
+        if (history != null && writeAtomically(historyFile, history)) {
+            HISTORY.stop(historyStart);
+            resetJournal(historySize);
+            if (searchIndex != null) {
+                // Se esta gravação falhar, o índice antigo não bate com o checksum e é reconstruído na carga
+                SearchIndex.stamp(searchIndex, HistoryStore.checksum(history));
+                writeAtomically(searchIndexFile, searchIndex);
+            }
+            if (seal != null) {
+                sealed = archive(seal, history, searchIndex);
+            }
+        }
+        appendRecords(after);
+
+        if (main != null) {
+            long mainStart = MAIN.start();
+            writeAtomically(mainFile, main);
+            MAIN.stop(mainStart);
+        }
+        FLUSH.stop(flushStart);
+    }
+
+    private boolean archive(Seal seal, byte[] history, byte[] searchIndex) {
+        try {
+            if (!writeAtomically(seal.segmentFile, HistoryArchive.compress(history))) return false;
+        } catch (IOException e) {
+            System.err.println("Erro ao compactar o segmento " + seal.segmentFile.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+            return false;
+        }
+        if (searchIndex != null) {
+            writeAtomically(seal.indexFile, searchIndex); // Já marcado com o checksum do segmento
+        }
+        writeAtomically(seal.statsFile, seal.stats); // Se faltar, é recalculado a partir do segmento
+        if (!writeAtomically(seal.manifestFile, seal.manifestLines)) return false;
+
+        // O dia está no arquivo. Se o app cair antes daqui, a carga reconhece o
+        // snapshot quente pelo checksum do último segmento e o descarta.
+        byte[] empty = new HistoryStore.Builder().toByteArray();
+        if (writeAtomically(historyFile, empty)) {
+            resetJournal(0);
+            byte[] emptyIndex = new SearchIndex().toByteArray();
+            SearchIndex.stamp(emptyIndex, HistoryStore.checksum(empty));
+            writeAtomically(searchIndexFile, emptyIndex);
+        }
+        return true;
+    }
+
+    private void appendRecords(List<String> records) {
+        if (records.isEmpty()) return;
+        long start = APPEND.start();
+
+        boolean fresh = !file.exists() || file.length() == 0;
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file, true))) {
+            if (fresh) {
+                writer.write(OP_SNAPSHOT + ";" + diskSnapshotSize);
+                writer.newLine();
+            }
+            for (String record : records) {
+                writer.write(record);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao gravar no diário de tarefas: " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+            return;
+        }
+        APPEND.stop(start);
+        RECORDS.add(records.size());
+    }
+
+    private void resetJournal(int snapshotSize) {
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(file))) {
+            writer.write(OP_SNAPSHOT + ";" + snapshotSize);
+            writer.newLine();
+            diskSnapshotSize = snapshotSize;
+        } catch (IOException e) {
+            System.err.println("Erro ao reiniciar o diário de tarefas: " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+        }
+    }
+
+    // Grava num arquivo temporário e renomeia, para nunca deixar um snapshot pela metade
+    static boolean writeAtomically(File target, List<String> lines) {
+        File temp = tempFileFor(target);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(temp))) {
+            for (String line : lines) {
+                writer.write(line);
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar " + target.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+            return false;
+        }
+        return moveIntoPlace(temp, target);
+    }
+
+    static boolean writeAtomically(File target, byte[] data) {
+        File temp = tempFileFor(target);
+        try (OutputStream out = new FileOutputStream(temp)) {
+            out.write(data);
+        } catch (IOException e) {
+            System.err.println("Erro ao salvar " + target.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+            return false;
+        }
+        return moveIntoPlace(temp, target);
+    }
+
+    private static File tempFileFor(File target) {
+        return new File(target.getAbsoluteFile().getParentFile(), target.getName() + ".tmp");
+    }
+
+    private static boolean moveIntoPlace(File temp, File target) {
+        try {
+            try {
+                replace(temp, target);
+            } catch (AccessDeniedException e) {
+                // No Windows um arquivo ainda mapeado (HistoryStore) não pode ser
+                // substituído até o mapeamento ser coletado
+                System.gc();
+                replace(temp, target);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("Erro ao substituir " + target.getName() + ": " + e.getMessage());
+            e.printStackTrace();
+            Metrics.error("gravacao", e);
+            return false;
+        }
+    }
+
+    private static void replace(File temp, File target) throws IOException {
+        try {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    // Linhas do arquivo principal: as tarefas da lista, com um indicador de conclusão
+    static List<String> mainLines(TaskView view) {
+        List<String> lines = new ArrayList<>(view.rowCount());
+        for (int row = 0; row < view.rowCount(); row++) {
+            int id = view.idAt(row);
+            lines.add(view.description(id) + ";" + view.isCompleted(id));
+        }
+        return lines;
+    }
+
+    static String addRecord(String taskLine) {
+        return OP_ADD + ";" + taskLine;
+    }
+
+    static String toggleRecord(int taskId, boolean completed, long completedAt) {
+        return OP_TOGGLE + ";" + taskId + ";" + completed + ";"
+                + (completedAt != TaskStore.NO_DATE ? String.valueOf(completedAt) : "null");
+    }
+
+    static String updateRecord(int taskId, String description) {
+        return OP_UPDATE + ";" + taskId + ";" + description;
+    }
+}
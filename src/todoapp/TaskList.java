@@ -1,88 +1,118 @@
 package todoapp;
 
 import javax.swing.*;
-import javax.swing.text.Style;
-import javax.swing.text.StyleConstants;
-import javax.swing.text.StyledDocument;
 import java.awt.*;
 import java.awt.datatransfer.DataFlavor;
 import java.awt.datatransfer.StringSelection;
 import java.awt.event.*;
+import java.awt.image.BufferedImage;
 import java.io.*;
-import java.text.SimpleDateFormat;
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
 import java.util.*;
 import java.util.List;
-import java.util.Timer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 import java.awt.datatransfer.Transferable;
 
 public class TaskList extends JScrollPane {
+    private static final int SEARCH_LIMIT = 500; // Resultados exibidos por busca
+    private static final int PREVIEW_ROWS = 50; // Mais que uma tela cheia, para a prévia da carga em segundo plano
+    private static final Metrics.Timer PAINT = Metrics.timer("pintura.lista");
     private JList<String> list;
-    private DefaultListModel<String> listModel;
-    private ArrayList<String> tasks;
+    private TaskListModel listModel;
     private ProgressUpdateListener progressListener;
-    private Map<Integer, Date> completedTasks;
-    private static final String FILE_MAIN = "tasks.txt";
-    private static final String FILE_HISTORY = "tasks_history.txt";
-    private Map<Integer, Date> creationDates = new HashMap<>();
-    private List<Task> taskObjects = new ArrayList<>();
-
-
-    class Task {
-        String description;
-        boolean completed;
-        Date createdAt;
-        Date completedAt;
-        List<String> tags;
-        int priority;
-
-        public Task(String desc, boolean comp, Date created, Date completed, List<String> tags, int priority) {
-            this.description = desc;
-            this.completed = comp;
-            this.createdAt = created;
-            this.completedAt = completed;
-            this.tags = tags;
-            this.priority = priority;
-        }
+    private TaskRepository repository; // Toda a lógica e persistência; esta classe só exibe (só muda na EDT)
+    private TaskRepository.Listener repositoryListener;
+    // Versão do repositório que a JList está exibindo. Só muda na EDT, junto com
+    // o aviso correspondente, então tamanho e linhas batem com os eventos do modelo.
+    private TaskView shown;
+    private final AtomicInteger pendingUpdates = new AtomicInteger(); // Avisos de outras threads ainda na fila da EDT
+    // Filtro por tags/prioridade: linhas do repositório que aparecem, em ordem (null = sem filtro)
+    private int[] filteredRows;
+    private int filteredCount;
+    private List<String> filterTags = Collections.emptyList();
+    private int filterPriority = TagIndex.ANY_PRIORITY;
 
-        public String toFileString() {
-            return String.join(";",
-                    description,
-                    String.valueOf(completed),
-                    String.valueOf(createdAt.getTime()),
-                    completedAt != null ? String.valueOf(completedAt.getTime()) : "null",
-                    String.join(",", tags),
-                    String.valueOf(priority)
-            );
-        }
+    public TaskList(ProgressUpdateListener listener) {
+        this(listener, new File("."));
+    }
 
-        public String toDisplayString() {
-            return description + " [Prioridade: " + priority + ", Tags: " + String.join(", ", tags) + "]";
-        }
+    public TaskList(ProgressUpdateListener listener, File dataDir) {
+        this(listener, new TaskRepository(dataDir));
     }
 
-    public TaskList(ProgressUpdateListener listener) {
+    public TaskList(ProgressUpdateListener listener, TaskRepository repository) {
+        this(listener, repository, true);
+    }
+
+    // Com loadNow = false a lista começa vazia e a carga fica para loadInBackground()
+    public TaskList(ProgressUpdateListener listener, TaskRepository repository, boolean loadNow) {
         this.progressListener = listener;
-        completedTasks = new HashMap<>();
-        tasks = new ArrayList<>();
-        listModel = new DefaultListModel<>();
-        list = new JList<>(listModel);
+        this.repository = repository;
+        shown = repository.view();
+        listModel = new TaskListModel(new TaskListModel.RowSource() {
+            @Override
+            public int rowCount() {
+                return filteredRows == null ? shown.rowCount() : filteredCount;
+            }
+
+            @Override
+            public String formatRow(int row) {
+                return shown.displayString(shown.idAt(toRepositoryRow(row)));
+            }
+        });
+        repositoryListener = listenerFor(repository);
+        repository.addListener(repositoryListener);
+        list = new JList<>(listModel) {
+            @Override
+            protected void paintComponent(Graphics g) {
+                long start = PAINT.start();
+                super.paintComponent(g); // Todas as células visíveis
+                PAINT.stop(start);
+            }
+        };
 
-        loadTasks(); // 🚀 Carrega as tarefas ao iniciar
+        if (loadNow) {
+            repository.load(); // 🚀 Carrega as tarefas ao iniciar
+        }
 
         list.setCellRenderer(new TaskListRenderer());
         list.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
         list.setFixedCellHeight(30);
+        list.setFixedCellWidth(200); // Evita medir todas as linhas; a célula ocupa a largura da lista
         list.setBackground(Color.WHITE);
-        list.setDragEnabled(true);
+        if (!GraphicsEnvironment.isHeadless()) {
+            list.setDragEnabled(true); // Lança HeadlessException sem monitor (benchmarks)
+        }
         list.setDropMode(DropMode.INSERT);
         list.setTransferHandler(new TaskReorderHandler());
 
         list.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
         list.addMouseListener(new TaskListMouseListener());
 
+        // Ctrl+Z desfaz, Ctrl+Y (ou Ctrl+Shift+Z) refaz, com o foco em qualquer lugar da janela
+        InputMap keys = list.getInputMap(JComponent.WHEN_IN_FOCUSED_WINDOW);
+        int menuKey = GraphicsEnvironment.isHeadless() // Sem monitor o Toolkit não informa a tecla
+                ? InputEvent.CTRL_DOWN_MASK : Toolkit.getDefaultToolkit().getMenuShortcutKeyMaskEx();
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuKey), "desfazer");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Y, menuKey), "refazer");
+        keys.put(KeyStroke.getKeyStroke(KeyEvent.VK_Z, menuKey | InputEvent.SHIFT_DOWN_MASK), "refazer");
+        list.getActionMap().put("desfazer", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                undo();
+            }
+        });
+        list.getActionMap().put("refazer", new AbstractAction() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                redo();
+            }
+        });
+
         list.addMouseListener(new MouseAdapter() {
             @Override
             public void mouseClicked(MouseEvent e) {
@@ -99,54 +129,212 @@ public class TaskList extends JScrollPane {
     }
 
 
-    private void saveMainFile() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_MAIN))) {
-            for (int i = 0; i < tasks.size(); i++) {
-                String task = tasks.get(i);
-                boolean isCompleted = completedTasks.containsKey(i);
-                // Salva a tarefa com um indicador de conclusão
-                writer.write(task + ";" + isCompleted);
-                writer.newLine();
+    // Avisos de um repositório, repassados à EDT com a versão publicada junto
+    private TaskRepository.Listener listenerFor(TaskRepository source) {
+        return new TaskRepository.Listener() {
+            @Override
+            public void rowsAdded(int from, int to) {
+                onEdt(source, () -> {
+                    if (filteredRows == null) {
+                        listModel.rowsAdded(from, to);
+                    } else {
+                        refreshFilter();
+                    }
+                    updateProgress();
+                });
+            }
+
+            @Override
+            public void rowChanged(int row) {
+                onEdt(source, () -> {
+                    if (filteredRows == null) {
+                        listModel.rowChanged(row);
+                    } else {
+                        int viewRow = Arrays.binarySearch(filteredRows, 0, filteredCount, row);
+                        if (viewRow >= 0) {
+                            listModel.rowChanged(viewRow);
+                        }
+                    }
+                    updateProgress();
+                });
+            }
+
+            @Override
+            public void rowMoved(int from, int to) {
+                onEdt(source, () -> {
+                    if (filteredRows == null) {
+                        listModel.rowMoved(from, to);
+                    } else {
+                        refreshFilter();
+                    }
+                });
             }
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar o arquivo principal: " + e.getMessage());
-            e.printStackTrace();
+
+            @Override
+            public void rowRemoved(int row) {
+                onEdt(source, () -> {
+                    if (filteredRows == null) {
+                        listModel.rowsRemoved(row, row); // Só a linha removida e as de baixo são repintadas
+                    } else {
+                        refreshFilter();
+                    }
+                    updateProgress();
+                });
+            }
+
+            @Override
+            public void rowsReset(int previousSize) {
+                onEdt(source, () -> {
+                    if (filteredRows == null) {
+                        listModel.reset(previousSize); // As linhas só são formatadas quando aparecem na tela
+                    } else {
+                        refreshFilter();
+                    }
+                    updateProgress();
+                });
+            }
+        };
+    }
+
+    // Aplica um aviso do repositório junto com a versão publicada com ele. Os
+    // avisos chegam com o repositório travado, então view() é exatamente o
+    // estado depois desta alteração. Vindos de outra thread (API, importação),
+    // vão para a fila da EDT; um aviso da própria EDT também entra na fila se
+    // ainda houver outros esperando, para não passar na frente deles. Avisos de
+    // um repositório que deixou de ser exibido (troca de lista) são ignorados.
+    private void onEdt(TaskRepository source, Runnable update) {
+        TaskView published = source.view();
+        if (SwingUtilities.isEventDispatchThread() && pendingUpdates.get() == 0) {
+            if (source != repository) return;
+            shown = published;
+            update.run();
+            return;
         }
+        pendingUpdates.incrementAndGet();
+        SwingUtilities.invokeLater(() -> {
+            if (source == repository) {
+                shown = published;
+                update.run();
+            }
+            pendingUpdates.decrementAndGet();
+        });
     }
 
+    // Mostra só as tarefas com todas as tags (separadas por vírgula) e a
+    // prioridade informadas; tags vazias e TagIndex.ANY_PRIORITY removem o filtro
+    public void applyFilter(String tagsStr, int priority) {
+        filterTags = TagIndex.parseTags(tagsStr);
+        filterPriority = priority;
+        refreshFilter();
+    }
 
-    private void saveHistoryFile() {
-        try (BufferedWriter writer = new BufferedWriter(new FileWriter(FILE_HISTORY))) {
-            for (int i = 0; i < taskObjects.size(); i++) { // Use taskObjects para garantir que você tenha todos os dados
-                Task task = taskObjects.get(i);
-                String taskDescription = task.description;
-                boolean isCompleted = task.completed;
-                Date completedDate = task.completedAt;
-                Date creationDate = task.createdAt;
-                List<String> tags = task.tags;
-                int priority = task.priority;
+    private void refreshFilter() {
+        int previousSize = listModel.getSize();
+        BitSet ids = repository.query(filterTags, filterPriority);
+        if (ids == null) {
+            filteredRows = null;
+        } else {
+            // Percorre a lista exibida consultando só o bitmap; sai em ordem de linha
+            int[] rows = new int[Math.min(ids.cardinality(), shown.rowCount())];
+            int count = 0;
+            for (int row = 0; row < shown.rowCount() && count < rows.length; row++) {
+                if (ids.get(shown.idAt(row))) {
+                    rows[count++] = row;
+                }
+            }
+            filteredRows = rows;
+            filteredCount = count;
+        }
+        listModel.reset(previousSize);
+    }
 
-                String createdStr = (creationDate != null) ? String.valueOf(creationDate.getTime()) : "null";
-                String completedStr = (completedDate != null) ? String.valueOf(completedDate.getTime()) : "null";
-                String tagsStr = String.join(",", tags); // Converte a lista de tags em uma string
-                String priorityStr = String.valueOf(priority);
+    // Índice na JList -> linha no repositório
+    private int toRepositoryRow(int index) {
+        return filteredRows == null ? index : filteredRows[index];
+    }
+
+    // Mostra logo as primeiras tarefas e carrega o resto fora da EDT; até a carga
+    // terminar a lista é só leitura e a barra mostra o andamento da carga
+    public void loadInBackground(IntConsumer loadProgress) {
+        loadInBackground(loadProgress, () -> { });
+    }
 
-                // Salva a tarefa com todos os campos necessários
-                writer.write(taskDescription + ";" + isCompleted + ";" + createdStr + ";" + completedStr + ";" + tagsStr + ";" + priorityStr);
-                writer.newLine();
+    // onLoaded roda na EDT depois do install(), mesmo que outra lista já esteja sendo exibida
+    public void loadInBackground(IntConsumer loadProgress, Runnable onLoaded) {
+        long start = System.nanoTime();
+        TaskRepository target = repository;
+        target.loadPreview(PREVIEW_ROWS);
+        StartupLog.phase("primeira tela", start);
+
+        target.beginBackgroundWork();
+        new SwingWorker<TaskRepository.Snapshot, Integer>() {
+            @Override
+            protected TaskRepository.Snapshot doInBackground() {
+                return target.readSnapshot(progress -> publish(progress));
             }
-        } catch (IOException e) {
-            System.err.println("Erro ao salvar o arquivo de histórico: " + e.getMessage());
-            e.printStackTrace();
+
+            @Override
+            protected void process(List<Integer> chunks) {
+                if (target == repository) {
+                    loadProgress.accept(chunks.get(chunks.size() - 1));
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    long installStart = System.nanoTime();
+                    target.install(get());
+                    StartupLog.phase("lista exibida", installStart);
+                    StartupLog.phase("carga completa", start);
+                    onLoaded.run();
+                } catch (Exception e) {
+                    // A lista continua só leitura: melhor do que arriscar gravar um histórico incompleto
+                    System.err.println("Erro ao carregar tarefas: " + e.getMessage());
+                    e.printStackTrace();
+                    Metrics.error("carga", e);
+                } finally {
+                    target.endBackgroundWork();
+                }
+            }
+        }.execute();
+    }
+
+    // Passa a exibir outro repositório (ex.: troca de lista). O filtro atual
+    // continua valendo; se o novo ainda não foi carregado, chamar loadInBackground().
+    public void setRepository(TaskRepository next) {
+        if (next == repository) return;
+        int previousSize = listModel.getSize();
+        repository.removeListener(repositoryListener);
+        repository = next;
+        repositoryListener = listenerFor(next);
+        next.addListener(repositoryListener);
+        shown = next.view();
+        if (filteredRows != null) {
+            refreshFilter();
+        } else {
+            listModel.reset(previousSize);
         }
+        list.clearSelection();
+        updateProgress();
     }
 
+    // Enquanto a carga em segundo plano não termina, nada pode ser alterado
+    public boolean isLoaded() {
+        return repository.isLoaded();
+    }
 
+    private boolean checkLoaded() {
+        if (repository.isLoaded()) return true;
+        JOptionPane.showMessageDialog(null, "Aguarde: as tarefas ainda estão sendo carregadas.");
+        return false;
+    }
 
     private void updateProgress() {
+        if (!repository.isLoaded()) return; // A barra está mostrando o andamento da carga
         if (progressListener != null) {
-            int total = tasks.size();
-            int completed = completedTasks.size();
+            int total = shown.rowCount();
+            int completed = getCompletedCount();
             int progress = (total > 0) ? (completed * 100) / total : 0;
             progressListener.onProgressUpdated(progress);
         } else {
@@ -155,70 +343,66 @@ public class TaskList extends JScrollPane {
     }
 
     public void addTask(String task) {
-        tasks.add(task);
-        listModel.addElement(task);
-        int index = tasks.size() - 1;
-        creationDates.put(index, new Date()); // Salva a data de criação
-
-        saveHistoryFile();
-        saveMainFile();
-        updateProgress();
+        addTask(task, "", 2); // Sem tags, prioridade média
     }
 
     public void addTask(String desc, String tagsStr, int priority) {
-        List<String> tags = Arrays.asList(tagsStr.split(","));
-        Task task = new Task(desc, false, new Date(), null, tags, priority);
-        taskObjects.add(task); // <- lista interna de Task
-        tasks.add(desc);    // <- lista simples (para compatibilidade antiga)
-        listModel.addElement(task.toDisplayString());
-        creationDates.put(tasks.size() - 1, task.createdAt);
-        saveHistoryFile();
+        if (!checkLoaded()) return;
+        repository.addTask(desc, tagsStr, priority);
     }
 
+    // Pelo ID: se outra thread alterou a lista e a EDT ainda não exibiu, a
+    // linha no repositório pode não ser a mesma da tela
     public void toggleTaskCompletion(int index) {
-        if (completedTasks.containsKey(index)) {
-            completedTasks.remove(index);
-        } else {
-            completedTasks.put(index, new Date());
+        if (!checkLoaded()) return;
+        int id = shown.taskId(toRepositoryRow(index));
+        synchronized (repository) {
+            int row = repository.rowOf(id);
+            if (row >= 0) {
+                repository.toggle(row);
+            }
         }
-        list.repaint();
-        saveHistoryFile();
-        saveMainFile();// 🔄 Salva no arquivo
-        updateProgress();
     }
 
+    // "Excluir" pelo texto digitado: remove uma tarefa só. Se a selecionada tiver
+    // essa descrição é ela; senão, a mais recente com essa descrição.
     public boolean removeTask(String description) {
-        return tasks.removeIf(task -> task.equalsIgnoreCase(description.trim()));
+        if (!checkLoaded()) return false;
+        int selected = list.getSelectedIndex();
+        if (selected >= 0 && getTask(selected).trim().equalsIgnoreCase(description.trim())) {
+            return repository.removeTask(shown.taskId(toRepositoryRow(selected)));
+        }
+        int id = repository.findListed(description);
+        return id >= 0 && repository.removeTask(id);
     }
 
 
     public void clearCompletedTasks() {
-        List<Integer> indices = new ArrayList<>(completedTasks.keySet());
-        Collections.sort(indices, Collections.reverseOrder()); // Remove de trás pra frente
+        if (!checkLoaded()) return;
+        repository.clearCompleted();
+    }
 
-        for (int index : indices) {
-            if (index < tasks.size()) {
-                tasks.remove(index);
-                listModel.remove(index);
-            }
-        }
-        completedTasks.clear();
-        saveMainFile();
-        saveHistoryFile();
-        updateProgress();
+    public boolean undo() {
+        if (!checkLoaded()) return false;
+        return repository.undo();
     }
 
-    public void finalizeDay() {
-        saveHistoryFile(); // Salva antes de apagar
-        tasks.clear();
-        listModel.clear();
-        completedTasks.clear();
-        saveMainFile(); // Sobrescreve o arquivo principal
-        updateProgress();
+    public boolean redo() {
+        if (!checkLoaded()) return false;
+        return repository.redo();
     }
 
+    // Devolve false se o dia não pôde ser arquivado (as tarefas continuam no histórico)
+    public boolean finalizeDay() {
+        if (!checkLoaded()) return false;
+        return repository.finalizeDay();
+    }
+
+    // A tarefa é guardada pelo ID: se a lista mudar enquanto o diálogo está
+    // aberto (ex.: carga de uma importação), a ação ainda vale para a tarefa certa
     private void editTask(int index) {
-        String currentTask = tasks.get(index);
+        int id = shown.taskId(toRepositoryRow(index));
+        String currentTask = getTask(index);
 
         Object[] options = {"Editar", "Excluir", "Cancelar"};
         int choice = JOptionPane.showOptionDialog(
@@ -234,11 +418,13 @@ public class TaskList extends JScrollPane {
 
         if (choice == JOptionPane.YES_OPTION) { // Editar
             String newTask = JOptionPane.showInputDialog("Editar tarefa:", currentTask);
-            if (newTask != null && !newTask.trim().isEmpty()) {
-                tasks.set(index, newTask);
-                listModel.set(index, newTask);
-                saveHistoryFile();
-                saveMainFile();
+            if (newTask != null && !newTask.trim().isEmpty() && checkLoaded()) {
+                synchronized (repository) {
+                    int row = repository.rowOf(id);
+                    if (row >= 0) {
+                        repository.updateDescription(row, newTask);
+                    }
+                }
             }
         } else if (choice == JOptionPane.NO_OPTION) { // Excluir
             int confirm = JOptionPane.showConfirmDialog(
@@ -248,8 +434,9 @@ public class TaskList extends JScrollPane {
                     JOptionPane.YES_NO_OPTION
             );
             if (confirm == JOptionPane.YES_OPTION) {
-                String taskDescription = tasks.get(index);  // pega a descrição da tarefa
-                removeTask(taskDescription);  // passa a descrição como argumento
+                if (checkLoaded()) {
+                    repository.removeTask(id); // Só esta tarefa, mesmo que outra tenha a mesma descrição
+                }
             }
         }
     }
@@ -274,6 +461,8 @@ public class TaskList extends JScrollPane {
 
         @Override
         public boolean canImport(TransferSupport support) {
+            if (filteredRows != null) return false; // Com filtro as posições não são as da lista inteira
+            if (!repository.isLoaded()) return false;
             return support.isDataFlavorSupported(DataFlavor.stringFlavor);
         }
 
@@ -290,31 +479,17 @@ public class TaskList extends JScrollPane {
                     return false; // Se índice inválido, cancela
                 }
 
-                DefaultListModel<String> model = (DefaultListModel<String>) targetList.getModel();
-
-                String task = model.get(draggedIndex);
-
-
-                model.remove(draggedIndex);
-
                 // Ajusta índice caso o item seja movido para baixo
                 if (targetIndex > draggedIndex) {
                     targetIndex--;
                 }
 
-                // Insere na nova posição
-                model.add(targetIndex, task);
-
-                // Atualiza a lista interna `tasks`
-                tasks.remove(draggedIndex);
-                tasks.add(targetIndex, task);
+                repository.moveRow(draggedIndex, targetIndex);
 
                 // Atualiza a seleção para o item movido
                 targetList.setSelectedIndex(targetIndex);
 
-                saveMainFile();
-                saveHistoryFile();
-
+                // A ordem da lista não faz parte do histórico: nada a gravar
                 return true;
             } catch (Exception e) {
                 e.printStackTrace();
@@ -323,60 +498,17 @@ public class TaskList extends JScrollPane {
         }
     }
 
-    private void loadTasks() {
-        File file = new File(FILE_HISTORY);
-        if (!file.exists()) return;
-
-        tasks.clear();
-        listModel.clear();
-        completedTasks.clear();
-        creationDates.clear();
-        taskObjects.clear(); // Limpa a lista de objetos de tarefa
-
-        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                String[] parts = line.split(";");
-                if (parts.length >= 6) {
-                    String desc = parts[0];
-                    boolean isCompleted = Boolean.parseBoolean(parts[1]);
-                    long createdMillis = Long.parseLong(parts[2]);
-                    Date createdDate = new Date(createdMillis);
-                    Date completedDate = parts[3].equals("null") ? null : new Date(Long.parseLong(parts[3]));
-                    List<String> tags = Arrays.asList(parts[4].split(","));
-                    int priority = Integer.parseInt(parts[5]);
-
-                    Task task = new Task(desc, isCompleted, createdDate, completedDate, tags, priority);
-                    taskObjects.add(task); // Armazena o objeto completo
-                    tasks.add(desc); // Compatibilidade antiga
-                    listModel.addElement(task.toDisplayString()); // Exibição correta
-                    creationDates.put(tasks.size() - 1, createdDate);
-
-                    // Se a tarefa estiver concluída, adicione-a ao mapa de tarefas concluídas
-                    if (isCompleted) {
-                        completedTasks.put(tasks.size() - 1, completedDate);
-                    }
-                } else {
-                    System.err.println("Linha malformada: " + line);
-                }
-            }
-        } catch (IOException e) {
-            System.err.println("Erro ao carregar tarefas: " + e.getMessage());
-            e.printStackTrace();
-        }
-
-        updateProgress();
+    // Grava as alterações pendentes e encerra a thread de persistência (chamado ao sair)
+    public void shutdown() {
+        repository.shutdown();
     }
 
-
-
-
     public int getCompletedCount() {
-        return completedTasks.size();
+        return shown.completedRowCount();
     }
 
     public int getTotalTasks() {
-        return tasks.size();
+        return shown.rowCount();
     }
 
     public JList<String> getList() {
@@ -388,53 +520,162 @@ public class TaskList extends JScrollPane {
     }
 
     public String getTask(int index) {
-        return tasks.get(index);
+        return shown.description(shown.idAt(toRepositoryRow(index)));
     }
 
+    // Como toggleTaskCompletion: a linha exibida vira ID antes de alterar
     public void updateTask(int index, String newTask) {
-        tasks.set(index, newTask);
-        listModel.set(index, newTask);
-        saveMainFile();
-        saveHistoryFile();
+        if (!checkLoaded()) return;
+        int id = shown.taskId(toRepositoryRow(index));
+        synchronized (repository) {
+            int row = repository.rowOf(id);
+            if (row >= 0) {
+                repository.updateDescription(row, newTask);
+            }
+        }
+    }
+
+    public TaskRepository getRepository() {
+        return repository;
     }
 
-    private class TaskListRenderer implements ListCellRenderer<String> {
-        private final JPanel panel = new JPanel(new BorderLayout(5, 0));
-        private final JCheckBox checkBox = new JCheckBox();
-        private final JLabel label = new JLabel();
+    // Uma célula é um único componente que se desenha sozinho: a caixa de
+    // seleção é uma imagem pronta do ícone do look and feel (marcada e
+    // desmarcada) e o texto vai direto com drawString. Cores e fonte são
+    // criadas uma vez; o texto cortado com "..." de cada linha fica em cache
+    // enquanto a largura não mudar.
+    private class TaskListRenderer extends JComponent implements ListCellRenderer<String> {
+        private static final Color SELECTED_BACKGROUND = new Color(210, 230, 255);
+        private static final Color COMPLETED_FOREGROUND = new Color(100, 100, 100);
+        private static final Font FONT = new Font("Segoe UI", Font.PLAIN, 14);
+        private static final int PADDING = 5;
+        private static final int TEXT_GAP = 6; // Entre a caixa e o texto
+        private static final int CLIPPED_CACHE_SIZE = 256;
+
+        private final Image unchecked = checkBoxImage(false);
+        private final Image checked = checkBoxImage(true);
+        private final Map<?, ?> textHints = (Map<?, ?>) Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+        private final Map<String, String> clipped = new LinkedHashMap<>(CLIPPED_CACHE_SIZE, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > CLIPPED_CACHE_SIZE;
+            }
+        };
+        private int clippedWidth = -1; // Largura para a qual o cache vale
+        private String text = "";
+        private boolean completed;
+        private boolean fillBackground;
 
         public TaskListRenderer() {
-            panel.setOpaque(true);
-            panel.setBorder(BorderFactory.createEmptyBorder(0, 5, 0, 5));
-            checkBox.setOpaque(false);
-            checkBox.setFocusPainted(false);
-            checkBox.setBorderPainted(false);
-            checkBox.setMargin(new Insets(0, 0, 0, 1));
-            label.setFont(new Font("Segoe UI", Font.PLAIN, 14));
-            label.setVerticalAlignment(SwingConstants.CENTER);
-
-            JPanel checkBoxPanel = new JPanel(new GridBagLayout());
-            checkBoxPanel.setOpaque(false);
-            checkBoxPanel.add(checkBox);
-
-            panel.add(checkBoxPanel, BorderLayout.WEST);
-            panel.add(label, BorderLayout.CENTER);
+            setFont(FONT);
         }
 
         @Override
         public Component getListCellRendererComponent(JList<? extends String> list, String value,
                                                       int index, boolean isSelected, boolean cellHasFocus) {
-            label.setText(listModel.get(index));
-            checkBox.setSelected(completedTasks.containsKey(index));
+            completed = shown.isCompleted(shown.idAt(toRepositoryRow(index)));
+            text = value;
+            setBackground(isSelected ? SELECTED_BACKGROUND : Color.WHITE);
+            setForeground(completed && !isSelected ? COMPLETED_FOREGROUND : Color.BLACK);
+            // A lista já pintou o fundo dela: só preenche se a cor for outra
+            fillBackground = !list.isOpaque() || !getBackground().equals(list.getBackground());
+            return this;
+        }
 
-            if (isSelected) {
-                panel.setBackground(new Color(210, 230, 255));
-                label.setForeground(Color.BLACK);
-            } else {
-                panel.setBackground(Color.WHITE);
-                label.setForeground(completedTasks.containsKey(index) ? new Color(100, 100, 100) : Color.BLACK);
+        @Override
+        public boolean isOpaque() {
+            return fillBackground;
+        }
+
+        @Override
+        protected void paintComponent(Graphics g) {
+            int width = getWidth();
+            int height = getHeight();
+            if (fillBackground) {
+                g.setColor(getBackground());
+                g.fillRect(0, 0, width, height);
             }
-            return panel;
+
+            Image box = completed ? checked : unchecked;
+            int iconWidth = box.getWidth(null);
+            g.drawImage(box, PADDING, (height - box.getHeight(null)) / 2, null);
+
+            Graphics2D g2 = (Graphics2D) g;
+            if (textHints != null) {
+                g2.addRenderingHints(textHints);
+            }
+            FontMetrics metrics = g.getFontMetrics(FONT);
+            int x = PADDING + iconWidth + TEXT_GAP;
+            int baseline = (height - metrics.getHeight()) / 2 + metrics.getAscent();
+            g.setFont(FONT);
+            g.setColor(getForeground());
+            g.drawString(clip(text, metrics, width - x - PADDING), x, baseline);
+        }
+
+        // O ícone da caixa de seleção pintado uma vez numa imagem
+        private Image checkBoxImage(boolean selected) {
+            JCheckBox checkBox = new JCheckBox();
+            checkBox.setSelected(selected);
+            Icon icon = UIManager.getIcon("CheckBox.icon");
+            BufferedImage image = new BufferedImage(icon.getIconWidth(), icon.getIconHeight(), BufferedImage.TYPE_INT_ARGB);
+            Graphics2D g = image.createGraphics();
+            icon.paintIcon(checkBox, g, 0, 0);
+            g.dispose();
+            return image;
+        }
+
+        private String clip(String value, FontMetrics metrics, int available) {
+            if (available != clippedWidth) {
+                clipped.clear();
+                clippedWidth = available;
+            }
+            String result = clipped.get(value);
+            if (result == null) {
+                result = value;
+                if (metrics.stringWidth(value) > available) {
+                    // Maior prefixo que cabe junto com as reticências (busca binária)
+                    int room = available - metrics.stringWidth("...");
+                    int low = 0;
+                    int high = value.length();
+                    while (low < high) {
+                        int mid = (low + high + 1) / 2;
+                        if (metrics.stringWidth(value.substring(0, mid)) <= room) {
+                            low = mid;
+                        } else {
+                            high = mid - 1;
+                        }
+                    }
+                    result = value.substring(0, low) + "...";
+                }
+                clipped.put(value, result);
+            }
+            return result;
+        }
+
+        // A JList chama estes métodos em cada célula; como a célula não está
+        // na tela, não há nada a avisar (o mesmo que o DefaultListCellRenderer faz)
+        @Override
+        public void invalidate() {
+        }
+
+        @Override
+        public void validate() {
+        }
+
+        @Override
+        public void revalidate() {
+        }
+
+        @Override
+        public void repaint(long tm, int x, int y, int width, int height) {
+        }
+
+        @Override
+        public void repaint(Rectangle r) {
+        }
+
+        @Override
+        protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
         }
     }
 
@@ -462,138 +703,175 @@ public class TaskList extends JScrollPane {
                 cal1.get(Calendar.DAY_OF_YEAR) == cal2.get(Calendar.DAY_OF_YEAR);
     }
 
-    private void scheduleDailySummary() {
-        Timer timer = new Timer();
-        Calendar now = Calendar.getInstance();
-        Calendar scheduledTime = Calendar.getInstance();
+    // Lê o arquivo e grava cada lote fora da EDT (o repositório é thread-safe e a
+    // lista recebe os avisos na EDT); só então o próximo é lido, então a memória
+    // fica limitada a um lote
+    public void importTasks(File file) {
+        if (!checkLoaded()) return;
+        TaskTransfer.Format format = TaskTransfer.Format.forFile(file);
+        TaskRepository target = repository; // A lista pode ser trocada no meio da importação
+        target.beginBackgroundWork();
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws Exception {
+                try (Reader reader = new InputStreamReader(new FileInputStream(file), StandardCharsets.UTF_8)) {
+                    return TaskTransfer.read(reader, format, batch -> {
+                        target.addBatch(batch);
+                        target.flush(); // Um flush por lote
+                    });
+                } finally {
+                    try {
+                        target.compactIfNeeded(); // Um snapshot só no fim, ainda fora da EDT
+                    } finally {
+                        target.endBackgroundWork();
+                    }
+                }
+            }
 
-        scheduledTime.set(Calendar.HOUR_OF_DAY, 19);
-        scheduledTime.set(Calendar.MINUTE, 0);
-        scheduledTime.set(Calendar.SECOND, 0);
+            @Override
+            protected void done() {
+                try {
+                    JOptionPane.showMessageDialog(null, get() + " tarefas importadas.");
+                } catch (Exception e) {
+                    System.err.println("Erro ao importar tarefas: " + e.getMessage());
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(null, "Erro ao importar: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
 
-        //Se já passou do horário, agenda para amanhã
-        if (now.after(scheduledTime)) {
-            scheduledTime.add(Calendar.DAY_OF_YEAR, 1);
+    public void exportTasks(File file) {
+        TaskTransfer.Format format = TaskTransfer.Format.forFile(file);
+        TaskHistory history = repository.fullHistory();
+        int size = history.size(); // Como no "Ver todas": só tarefas já existentes são lidas fora da EDT
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() throws IOException {
+                try (Writer writer = new OutputStreamWriter(new FileOutputStream(file), StandardCharsets.UTF_8)) {
+                    return TaskTransfer.write(history, size, writer, format);
+                }
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    JOptionPane.showMessageDialog(null, get() + " tarefas exportadas.");
+                } catch (Exception e) {
+                    System.err.println("Erro ao exportar tarefas: " + e.getMessage());
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(null, "Erro ao exportar: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    // Abre o resultado da busca na mesma janela paginada do "Ver todas". A busca
+    // roda fora da EDT: a primeira nos dias arquivados monta o índice deles.
+    public void searchHistory(String query) {
+        TaskRepository target = repository;
+        new SwingWorker<int[], Void>() {
+            @Override
+            protected int[] doInBackground() {
+                return target.search(query, SEARCH_LIMIT);
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    showSearchResults(target, query, get());
+                } catch (Exception e) {
+                    System.err.println("Erro ao buscar tarefas: " + e.getMessage());
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(null, "Erro ao buscar: " + e.getMessage(), "Erro", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
+    }
+
+    private void showSearchResults(TaskRepository target, String query, int[] ids) {
+        if (ids.length == 0) {
+            JOptionPane.showMessageDialog(null, "Nenhuma tarefa encontrada.", "Busca", JOptionPane.INFORMATION_MESSAGE);
+            return;
         }
 
-        timer.scheduleAtFixedRate(new TimerTask() {
+        TaskHistory history = target.fullHistory(); // Posições já buscadas continuam valendo nele
+        new HistoryWindow("Busca", "Resultados para \"" + query.trim() + "\":", new HistoryWindow.Source() {
+            @Override
+            public int size() {
+                return ids.length;
+            }
+
+            @Override
+            public String description(int index) {
+                return history.description(ids[index]);
+            }
+
+            @Override
+            public boolean isCompleted(int index) {
+                return history.isCompleted(ids[index]);
+            }
+
             @Override
-            public void run() {
-                SwingUtilities.invokeLater(() -> showAllTasks());
+            public long createdAt(int index) {
+                return history.createdAt(ids[index]);
             }
-        }, scheduledTime.getTime(), 24 * 60 * 60 * 1000); //Executa a cada 24 horas
+        }).show();
+    }
+
+    // Os agregados dos dias arquivados são montados fora da EDT (na primeira
+    // vez podem exigir descompactar segmentos); a janela abre quando terminam
+    public void showStatistics() {
+        if (!checkLoaded()) return;
+        TaskRepository target = repository;
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                target.prepareStatistics();
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                try {
+                    get();
+                    new StatsWindow(target.statistics()).show();
+                } catch (Exception e) {
+                    System.err.println("Erro ao calcular as estatísticas: " + e.getMessage());
+                    e.printStackTrace();
+                    JOptionPane.showMessageDialog(null, "Erro ao calcular as estatísticas: " + e.getMessage(),
+                            "Erro", JOptionPane.ERROR_MESSAGE);
+                }
+            }
+        }.execute();
     }
 
     public void showAllTasks() {
-        JFrame frame = new JFrame("Todas as tarefas");
-        frame.setSize(700, 600);
-        frame.setDefaultCloseOperation(JFrame.DISPOSE_ON_CLOSE);
-        frame.setLayout(new BorderLayout());
-
-        // Painel principal com padding
-        JPanel panel = new JPanel(new BorderLayout());
-        panel.setBackground(new Color(248, 200, 97)); // Cor de fundo amarelada
-        panel.setBorder(BorderFactory.createEmptyBorder(20, 20, 20, 20));
-
-        // Painel arredondado para o conteúdo
-        JPanel roundedPanel = new JPanel(new BorderLayout()) {
+        // O tamanho é fixado ao abrir: as páginas são montadas fora da EDT e só
+        // leem tarefas já existentes (os arrays do TaskStore só crescem e os
+        // segmentos arquivados não mudam)
+        TaskHistory history = repository.fullHistory();
+        int size = history.size();
+        new HistoryWindow(new HistoryWindow.Source() {
             @Override
-            protected void paintComponent(Graphics g) {
-                Graphics2D g2 = (Graphics2D) g.create();
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                g2.setColor(getBackground());
-                g2.fillRoundRect(0, 0, getWidth(), getHeight(), 30, 30); // Bordas arredondadas
-                g2.dispose();
+            public int size() {
+                return size;
             }
 
             @Override
-            public Insets getInsets() {
-                return new Insets(15, 15, 15, 15); // Padding interno
+            public String description(int index) {
+                return history.description(index);
             }
-        };
-        roundedPanel.setBackground(Color.WHITE);
-        roundedPanel.setOpaque(false);
-
-        // JTextPane para o conteúdo
-        JTextPane textPane = new JTextPane();
-        textPane.setEditable(false);
-        textPane.setBackground(new Color(255, 255, 255, 0)); // Fundo transparente
-        textPane.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 5));
-
-        // Configurar estilos
-        StyledDocument doc = textPane.getStyledDocument();
-        Style defaultStyle = doc.addStyle("default", null);
-        StyleConstants.setFontFamily(defaultStyle, "Segoe UI Emoji");
-        StyleConstants.setFontSize(defaultStyle, 16);
-        StyleConstants.setSpaceBelow(defaultStyle, 10);
-
-        Style headerStyle = doc.addStyle("header", defaultStyle);
-        StyleConstants.setBold(headerStyle, true);
-        StyleConstants.setFontSize(headerStyle, 18);
-        StyleConstants.setAlignment(headerStyle, StyleConstants.ALIGN_CENTER);
-
-        // Adicionar conteúdo
-        try {
-            doc.insertString(doc.getLength(), "Lista de tarefas:\n\n", headerStyle);
-
-            File file = new File(FILE_HISTORY);
-            if (file.exists()) {
-                try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        String[] parts = line.split(";");
-                        if (parts.length >= 4) {
-                            String task = parts[0];
-                            boolean isCompleted = Boolean.parseBoolean(parts[1]);
-                            long createdMillis = Long.parseLong(parts[2]);
-                            Date createdDate = new Date(createdMillis);
-
-                            String status = isCompleted ? "🍀 Concluída" : "🔴 Pendente";
-
-                            SimpleDateFormat formatter = new SimpleDateFormat("EEEE, dd/MM/yyyy", new Locale("pt", "BR"));
-                            String dataFormatada = formatter.format(createdDate);
-
-                            doc.insertString(doc.getLength(), "• " + task + "\n  📅 Adicionada: " + dataFormatada + " - " + status + "\n\n", defaultStyle);
-                        }
 
-                    }
-                }
+            @Override
+            public boolean isCompleted(int index) {
+                return history.isCompleted(index);
             }
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
 
-        // Adicionar componentes ao painel arredondado
-        JScrollPane scrollPane = new JScrollPane(textPane);
-        scrollPane.setBorder(BorderFactory.createEmptyBorder()); // Remove borda
-        scrollPane.setOpaque(false);
-        scrollPane.getViewport().setOpaque(false);
-        textPane.setBackground(Color.WHITE);
-        roundedPanel.add(scrollPane, BorderLayout.CENTER);
-
-        // Botão de fechar estilizado
-        JButton closeButton = new JButton("FECHAR");
-        closeButton.setFont(new Font("Segoe UI", Font.BOLD, 14));
-        closeButton.setForeground(Color.WHITE);
-        closeButton.setBackground(new Color(20, 20, 20));
-        closeButton.setFocusPainted(false);
-        closeButton.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(20, 20, 20), 1),
-                BorderFactory.createEmptyBorder(8, 25, 8, 25)
-        ));
-        closeButton.addActionListener(e -> frame.dispose());
-
-        // Painel do botão
-        JPanel buttonPanel = new JPanel();
-        buttonPanel.setBackground(new Color(248, 200, 97));
-        buttonPanel.add(closeButton);
-
-        // Adicionar componentes ao painel principal
-        panel.add(roundedPanel, BorderLayout.CENTER);
-        panel.add(buttonPanel, BorderLayout.SOUTH);
-
-        frame.add(panel);
-        frame.setLocationRelativeTo(null);
-        frame.setVisible(true);
-    }
-}
\ No newline at end of file
+            @Override
+            public long createdAt(int index) {
+                return history.createdAt(index);
+            }
+        }).show();
+    }
+}
@@ -0,0 +1,86 @@
+package todoapp;
+
+import javax.swing.AbstractListModel;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Modelo da JList que não guarda uma string de exibição por tarefa: cada linha
+// é formatada só quando o Swing pede (na prática, as linhas visíveis) e fica
+// num pequeno cache LRU. As alterações são avisadas em blocos.
+public class TaskListModel extends AbstractListModel<String> {
+    public interface RowSource {
+        int rowCount();
+
+        String formatRow(int row);
+    }
+
+    private static final int CACHE_SIZE = 256;
+
+    private final RowSource source;
+    private final Map<Integer, String> cache = new LinkedHashMap<>(CACHE_SIZE, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, String> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    public TaskListModel(RowSource source) {
+        this.source = source;
+    }
+
+    @Override
+    public int getSize() {
+        return source.rowCount();
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        String row = cache.get(index);
+        if (row == null) {
+            row = source.formatRow(index);
+            cache.put(index, row);
+        }
+        return row;
+    }
+
+    // Os métodos abaixo são chamados depois que a fonte já foi alterada
+
+    public void rowsAdded(int from, int to) {
+        invalidateFrom(from);
+        fireIntervalAdded(this, from, to);
+    }
+
+    public void rowsRemoved(int from, int to) {
+        invalidateFrom(from);
+        fireIntervalRemoved(this, from, to);
+    }
+
+    public void rowChanged(int index) {
+        cache.remove(index);
+        fireContentsChanged(this, index, index);
+    }
+
+    // Uma linha mudou de posição: tudo entre a origem e o destino se desloca
+    public void rowMoved(int from, int to) {
+        int first = Math.min(from, to);
+        int last = Math.max(from, to);
+        cache.keySet().removeIf(row -> row >= first && row <= last);
+        fireContentsChanged(this, first, last);
+    }
+
+    // Substitui o conteúdo inteiro com dois eventos, em vez de um por linha
+    public void reset(int previousSize) {
+        cache.clear();
+        if (previousSize > 0) {
+            fireIntervalRemoved(this, 0, previousSize - 1);
+        }
+        int size = getSize();
+        if (size > 0) {
+            fireIntervalAdded(this, 0, size - 1);
+        }
+    }
+
+    private void invalidateFrom(int from) {
+        cache.keySet().removeIf(row -> row >= from);
+    }
+}
@@ -0,0 +1,926 @@
+package todoapp;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+// Motor das tarefas, sem nada de Swing: carga, alterações, consultas e
+// persistência (diário + snapshots). O TaskList é só uma visão sobre ele;
+// importações em lote, benchmarks ou uma CLI podem usá-lo direto.
+//
+// Pode ser usado de várias threads. As alterações (e as consultas que usam
+// índices montados sob demanda) são synchronized; as leituras da lista vêm de
+// um TaskView imutável, publicado a cada alteração, e não esperam ninguém.
+// Para combinar chamadas (ex.: rowOf() e depois toggle()), synchronized (repository).
+// readSnapshot() não toca nas tarefas exibidas e pode rodar em segundo plano,
+// desde que nada seja alterado antes do install().
+public class TaskRepository {
+    // Avisos para quem exibe a lista; view() já reflete a alteração. São
+    // chamados na thread que alterou, com o repositório travado: quem precisa
+    // de outra thread (ex.: a EDT) guarda o view() e repassa, sem esperar.
+    public interface Listener {
+        void rowsAdded(int from, int to);
+
+        void rowChanged(int row);
+
+        void rowMoved(int from, int to);
+
+        void rowRemoved(int row);
+
+        void rowsReset(int previousSize);
+    }
+
+    private static final String FILE_MAIN = "tasks.txt";
+    private static final String FILE_HISTORY = "tasks_history.bin";
+    private static final String FILE_LEGACY_HISTORY = "tasks_history.txt"; // Formato antigo, convertido na primeira carga
+    private static final String FILE_JOURNAL = "tasks_history.journal";
+    private static final String FILE_SEARCH_INDEX = "tasks_history.idx";
+    private static final String DIR_ARCHIVE = "history"; // Dias fechados (HistoryArchive)
+    private static final int JOURNAL_COMPACT_THRESHOLD = 500; // registros no diário antes de gravar um snapshot novo
+    // Limites do desfazer: entradas e peso somado (em ints, ~4 MB)
+    private static final int UNDO_MAX_OPS = 200;
+    private static final long UNDO_MAX_WEIGHT = 1 << 20;
+    // Janela (ms) em que rajadas de alterações são agrupadas num único flush
+    private static final long PERSISTENCE_WINDOW_MS = Long.getLong("todoapp.persistence.windowMs", 250L);
+    private static final Metrics.Timer LOAD_READ = Metrics.timer("carga.leitura");
+    private static final Metrics.Timer LOAD_INSTALL = Metrics.timer("carga.install");
+    private static final Metrics.Timer ADD = Metrics.timer("adicionar");
+    private static final Metrics.Timer TOGGLE = Metrics.timer("marcar");
+    private static final Metrics.Timer MOVE = Metrics.timer("reordenar");
+    private static final Metrics.Timer QUERY = Metrics.timer("filtro");
+    private static final Metrics.Timer SEARCH = Metrics.timer("busca");
+
+    private final File dataDir; // Pasta onde ficam os arquivos de tarefas
+    private final TaskJournal journal;
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final UndoLog undoLog = new UndoLog(UNDO_MAX_OPS, UNDO_MAX_WEIGHT);
+    private TaskStore store = new TaskStore(); // Tarefas do dia (desde o último "Finalizar dia") + ordem da lista
+    private HistoryArchive archive; // Dias já fechados, abertos sob demanda
+    // Tarefas dos dias fechados. O store numera as tarefas do dia a partir de 0;
+    // fora do repositório o ID é firstId + essa posição, que é também a posição
+    // em fullHistory() e nunca se repete de um dia para o outro.
+    private int firstId;
+    private TagIndex tagIndex = new TagIndex();
+    private SearchIndex searchIndex = new SearchIndex();
+    private TaskStats stats = new TaskStats(); // Estatísticas do dia; as dos dias fechados ficam no arquivo
+    private DescriptionIndex descriptionIndex; // Montado no primeiro "Excluir" pelo texto
+    private final TaskView.Writer viewWriter = new TaskView.Writer();
+    private volatile TaskView view = TaskView.EMPTY; // Última versão publicada do store
+    private volatile boolean loaded; // Só depois de load()/install() as alterações são permitidas
+    private final AtomicInteger backgroundWork = new AtomicInteger(); // Carga e importação em andamento (-1: fechada)
+
+    public TaskRepository(File dataDir) {
+        this.dataDir = dataDir;
+        archive = HistoryArchive.open(new File(dataDir, DIR_ARCHIVE));
+        firstId = archive.size();
+        journal = new TaskJournal(dataFile(FILE_JOURNAL), dataFile(FILE_HISTORY), dataFile(FILE_SEARCH_INDEX),
+                dataFile(FILE_MAIN), JOURNAL_COMPACT_THRESHOLD, PERSISTENCE_WINDOW_MS);
+    }
+
+    public void addListener(Listener listener) {
+        listeners.add(listener);
+    }
+
+    public void removeListener(Listener listener) {
+        listeners.remove(listener);
+    }
+
+    // Consultas
+
+    // Retrato atual da lista, sem trava. Para várias leituras seguidas, pegar
+    // um só e ler dele: os métodos abaixo leem cada um a versão mais recente.
+    public TaskView view() {
+        return view;
+    }
+
+    public int rowCount() {
+        return view.rowCount();
+    }
+
+    public int completedRowCount() {
+        return view.completedRowCount();
+    }
+
+    // ID estável da tarefa na linha (ver firstId)
+    public int idAt(int row) {
+        return view.taskId(row);
+    }
+
+    public String description(int row) {
+        TaskView current = view;
+        return current.description(current.idAt(row));
+    }
+
+    public String displayString(int row) {
+        TaskView current = view;
+        return current.displayString(current.idAt(row));
+    }
+
+    public boolean isCompleted(int row) {
+        TaskView current = view;
+        return current.isCompleted(current.idAt(row));
+    }
+
+    // Linha da tarefa, ou -1 se ela não está na lista (inclusive de um dia já fechado)
+    public synchronized int rowOf(int id) {
+        int local = localId(id);
+        return local < 0 ? -1 : store.rowOf(local);
+    }
+
+    // Posição no store da tarefa com esse ID estável, ou -1 se não é do dia
+    private int localId(int id) {
+        int local = id - firstId;
+        return local >= 0 && local < store.size() ? local : -1;
+    }
+
+    // Tarefa da lista com essa descrição (sem diferenciar maiúsculas), a mais
+    // recente se houver mais de uma; -1 se nenhuma
+    public synchronized int findListed(String description) {
+        int[] ids = descriptionIndex().find(TaskStore.clean(description)); // Como foi gravada
+        for (int i = ids.length - 1; i >= 0; i--) {
+            if (store.rowOf(ids[i]) >= 0) return firstId + ids[i];
+        }
+        return -1;
+    }
+
+    private DescriptionIndex descriptionIndex() {
+        if (descriptionIndex == null) {
+            descriptionIndex = new DescriptionIndex();
+            for (int id = 0; id < store.size(); id++) {
+                descriptionIndex.add(id, store.description(id));
+            }
+        }
+        return descriptionIndex;
+    }
+
+    // IDs com todas as tags e a prioridade pedidas (null = sem filtro)
+    public synchronized BitSet query(Collection<String> tags, int priority) {
+        long start = QUERY.start();
+        BitSet result = tagIndex.query(tags, priority);
+        QUERY.stop(start);
+        return result;
+    }
+
+    // Busca textual em todo o histórico (descrição e tags), incluindo os dias
+    // arquivados. Devolve posições em fullHistory(), as melhores primeiro.
+    // Só o dia atual é buscado com a trava; o arquivo tem a sua, e a primeira
+    // busca nele monta o índice (HistoryArchive.prepareSearch): fora da EDT.
+    public int[] search(String query, int limit) {
+        long start = SEARCH.start();
+        long[] active;
+        HistoryArchive older;
+        int archived;
+        synchronized (this) {
+            active = searchIndex.searchScored(query, limit);
+            older = archive;
+            archived = archive.size();
+        }
+        for (int i = 0; i < active.length; i++) {
+            active[i] += archived; // Depois do arquivo, como em fullHistory()
+        }
+        // Um dia fechado depois da trava já está em `active`, nas mesmas posições
+        long[] past = older.searchScored(query, limit);
+        int kept = 0;
+        for (long hit : past) {
+            if (SearchIndex.hitId(hit) < archived) past[kept++] = hit;
+        }
+
+        // Pontuação nos 32 bits de cima e posição nos de baixo: ordem decrescente
+        // dá a maior pontuação primeiro e, no empate, a tarefa mais recente
+        long[] hits = Arrays.copyOf(active, active.length + kept);
+        System.arraycopy(past, 0, hits, active.length, kept);
+        Arrays.sort(hits);
+        int[] positions = new int[Math.min(limit, hits.length)];
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] = SearchIndex.hitId(hits[hits.length - 1 - i]);
+        }
+        SEARCH.stop(start);
+        return positions;
+    }
+
+    // Monta as estatísticas dos dias arquivados sem travar o repositório; um
+    // arquivo antigo, sem os .stats, descompacta os segmentos. Chamar fora da
+    // EDT antes de statistics(), que então só soma os agregados.
+    public void prepareStatistics() {
+        HistoryArchive current;
+        synchronized (this) {
+            current = archive;
+        }
+        current.stats();
+    }
+
+    // Estatísticas de todo o histórico, já agregadas (não percorre as tarefas)
+    public synchronized TaskStats statistics() {
+        TaskStats all = archive.stats();
+        all.merge(stats);
+        return all;
+    }
+
+    // Tarefas do dia, somente leitura e só com o repositório travado (ou numa
+    // única thread, como nos benchmarks); de outras threads, usar view()
+    public TaskStore history() {
+        return store;
+    }
+
+    // Histórico inteiro (dias arquivados + dia atual), somente leitura e fixo no
+    // momento da chamada; pode ser lido de qualquer thread (ex.: exportação)
+    public synchronized TaskHistory fullHistory() {
+        return archive.withActive(view);
+    }
+
+    // Alterações
+
+    public synchronized int addTask(String desc, String tagsStr, int priority) {
+        long start = ADD.start();
+        desc = TaskStore.clean(desc);
+        String tags = String.join(",", TaskStore.clean(tagsStr).split(",")); // Mesmo formato gravado no histórico
+        int id = store.add(desc, tags, priority, System.currentTimeMillis(), false, TaskStore.NO_DATE);
+        tagIndex.add(id, tags, priority);
+        searchIndex.add(id, desc, tags);
+        stats.add(store, id);
+        if (descriptionIndex != null) {
+            descriptionIndex.add(id, desc);
+        }
+        store.appendRow(id);
+        int row = store.rowCount() - 1;
+        viewWriter.task(store, id);
+        viewWriter.rows(store, row, row + 1);
+        publish();
+        for (Listener listener : listeners) {
+            listener.rowsAdded(row, row);
+        }
+        appendToJournal(TaskJournal.addRecord(store.fileString(id)));
+        undoLog.clearRedo(); // Adicionar não se desfaz (o histórico só cresce), mas é uma ação nova
+        ADD.stop(start);
+        return firstId + id;
+    }
+
+    // Entrada em lote (importação): um único aviso para todas as linhas novas e
+    // nenhuma compactação no meio do lote. Quem importa chama flush() a cada
+    // lote e compactIfNeeded() no fim, para gravar um só snapshot. Devolve o ID
+    // estável da primeira tarefa do lote (as outras seguem em ordem), ou -1 se vazio.
+    public synchronized int addBatch(TaskStore batch) {
+        int first = appendBatch(batch);
+        if (first >= 0) undoLog.clearRedo();
+        return first;
+    }
+
+    // Lote vindo de fora da janela (API): como toggleExternal, não mexe no
+    // desfazer/refazer de quem está usando a janela
+    public synchronized int addBatchExternal(TaskStore batch) {
+        return appendBatch(batch);
+    }
+
+    private int appendBatch(TaskStore batch) {
+        if (batch.size() == 0) return -1;
+
+        int from = store.rowCount();
+        int first = store.size();
+        for (int i = 0; i < batch.size(); i++) {
+            int id = store.add(TaskStore.clean(batch.description(i)), TaskStore.clean(batch.tags(i)), batch.priority(i),
+                    batch.createdAt(i), batch.isCompleted(i), batch.completedAt(i));
+            tagIndex.add(id, store.tags(id), store.priority(id));
+            searchIndex.add(id, store.description(id), store.tags(id));
+            stats.add(store, id);
+            if (descriptionIndex != null) {
+                descriptionIndex.add(id, store.description(id));
+            }
+            store.appendRow(id);
+            viewWriter.task(store, id);
+            journal.append(TaskJournal.addRecord(store.fileString(id)));
+        }
+        viewWriter.rows(store, from, store.rowCount());
+        publish();
+        for (Listener listener : listeners) {
+            listener.rowsAdded(from, store.rowCount() - 1);
+        }
+        return firstId + first;
+    }
+
+    public synchronized void compactIfNeeded() {
+        if (journal.needsCompaction()) {
+            compact();
+        }
+    }
+
+    public synchronized void toggle(int row) {
+        long start = TOGGLE.start();
+        int id = store.idAt(row);
+        boolean wasCompleted = store.isCompleted(id);
+        long previous = store.completedAt(id);
+        setCompletion(row, !wasCompleted, System.currentTimeMillis());
+        long current = store.completedAt(id);
+        undoLog.record(new UndoLog.Op() {
+            @Override
+            public void undo() {
+                setCompletion(row, wasCompleted, previous);
+            }
+
+            @Override
+            public void redo() {
+                setCompletion(row, !wasCompleted, current);
+            }
+
+            @Override
+            public int weight() {
+                return 6;
+            }
+        });
+        TOGGLE.stop(start);
+    }
+
+    // Marcar vindo de fora da janela (API): não entra no desfazer, para o Ctrl+Z
+    // do usuário não desfazer o que outro cliente fez
+    public synchronized void toggleExternal(int row) {
+        long start = TOGGLE.start();
+        setCompletion(row, !store.isCompleted(store.idAt(row)), System.currentTimeMillis());
+        TOGGLE.stop(start);
+    }
+
+    private void setCompletion(int row, boolean completed, long completedAt) {
+        int id = store.idAt(row);
+        stats.remove(store, id); // Tira a tarefa dos contadores e devolve com o novo estado
+        store.setCompleted(id, completed, completedAt);
+        stats.add(store, id);
+        viewWriter.task(store, id);
+        publish();
+        for (Listener listener : listeners) {
+            listener.rowChanged(row);
+        }
+        appendToJournal(TaskJournal.toggleRecord(id, store.isCompleted(id), store.completedAt(id))); // 🔄 Salva no diário
+    }
+
+    public synchronized void updateDescription(int row, String rawDescription) {
+        String description = TaskStore.clean(rawDescription);
+        String previous = store.description(store.idAt(row));
+        setDescription(row, description);
+        undoLog.record(new UndoLog.Op() {
+            @Override
+            public void undo() {
+                setDescription(row, previous);
+            }
+
+            @Override
+            public void redo() {
+                setDescription(row, description);
+            }
+
+            @Override
+            public int weight() {
+                return 4 + (previous.length() + description.length()) / 2; // Dois chars por int
+            }
+        });
+    }
+
+    private void setDescription(int row, String description) {
+        int id = store.idAt(row);
+        searchIndex.update(id, store.description(id), description, store.tags(id));
+        if (descriptionIndex != null) {
+            descriptionIndex.update(id, store.description(id), description);
+        }
+        store.setDescription(id, description);
+        viewWriter.task(store, id);
+        publish();
+        for (Listener listener : listeners) {
+            listener.rowChanged(row);
+        }
+        appendToJournal(TaskJournal.updateRecord(id, description));
+    }
+
+    // Só a ordem muda: o ID (e o estado de conclusão) acompanha a tarefa.
+    // A ordem da lista não faz parte do histórico: nada a gravar
+    public synchronized void moveRow(int from, int to) {
+        long start = MOVE.start();
+        move(from, to);
+        undoLog.record(new UndoLog.Op() {
+            @Override
+            public void undo() {
+                move(to, from);
+            }
+
+            @Override
+            public void redo() {
+                move(from, to);
+            }
+
+            @Override
+            public int weight() {
+                return 2;
+            }
+        });
+        MOVE.stop(start);
+    }
+
+    private void move(int from, int to) {
+        store.moveRow(from, to);
+        viewWriter.rows(store, Math.min(from, to), Math.max(from, to) + 1);
+        publish();
+        for (Listener listener : listeners) {
+            listener.rowMoved(from, to);
+        }
+    }
+
+    // Tira uma tarefa da lista (não do histórico) pelo ID: um aviso só para a
+    // linha removida, sem redesenhar a lista inteira
+    public synchronized boolean removeTask(int taskId) {
+        int id = localId(taskId);
+        int row = id < 0 ? -1 : store.rowOf(id);
+        if (row < 0) return false;
+
+        removeRow(row);
+        undoLog.record(new UndoLog.Op() {
+            @Override
+            public void undo() {
+                store.restoreRows(new int[]{row, id});
+                publishRowsFrom(row);
+                for (Listener listener : listeners) {
+                    listener.rowsAdded(row, row);
+                }
+                journal.scheduleMainFile(mainFileLines());
+            }
+
+            @Override
+            public void redo() {
+                removeRow(row);
+            }
+
+            @Override
+            public int weight() {
+                return 2;
+            }
+        });
+        return true;
+    }
+
+    private void removeRow(int row) {
+        store.takeRow(row);
+        publishRowsFrom(row);
+        for (Listener listener : listeners) {
+            listener.rowRemoved(row);
+        }
+        journal.scheduleMainFile(mainFileLines());
+    }
+
+    public synchronized void clearCompleted() {
+        removeRows(store.takeCompletedRows()); // O histórico não muda: as tarefas concluídas continuam nele
+    }
+
+    // As linhas já saíram do store; avisa e grava uma vez só e registra o
+    // desfazer com as posições e IDs removidos (e não uma cópia da lista)
+    private boolean removeRows(int[] removed) {
+        if (removed.length == 0) return false;
+
+        rowsRemoved(removed[0], store.rowCount() + removed.length / 2);
+        undoLog.record(new UndoLog.Op() {
+            @Override
+            public void undo() {
+                int previousSize = store.rowCount();
+                store.restoreRows(removed);
+                rowsRemoved(removed[0], previousSize);
+            }
+
+            @Override
+            public void redo() {
+                BitSet ids = new BitSet();
+                for (int i = 1; i < removed.length; i += 2) {
+                    ids.set(removed[i]);
+                }
+                store.takeRowsIf(ids::get);
+                rowsRemoved(removed[0], store.rowCount() + removed.length / 2);
+            }
+
+            @Override
+            public int weight() {
+                return removed.length;
+            }
+        });
+        return true;
+    }
+
+    // Um único aviso e uma única gravação, em vez de um por tarefa. As linhas
+    // antes de `firstRow` (a primeira removida) não mudaram.
+    private void rowsRemoved(int firstRow, int previousSize) {
+        publishRowsFrom(firstRow);
+        fireReset(previousSize);
+        journal.scheduleMainFile(mainFileLines());
+    }
+
+    // Desfazer/refazer: cada um aplica uma operação e grava como uma alteração
+    // comum (diário ou arquivo principal). Devolvem false se não havia o que fazer.
+
+    public synchronized boolean undo() {
+        return undoLog.undo();
+    }
+
+    public synchronized boolean redo() {
+        return undoLog.redo();
+    }
+
+    public synchronized boolean canUndo() {
+        return undoLog.canUndo();
+    }
+
+    public synchronized boolean canRedo() {
+        return undoLog.canRedo();
+    }
+
+    // Fecha o dia: as tarefas do dia viram um segmento imutável no arquivo e o
+    // snapshot quente recomeça vazio, então o trabalho dos dias seguintes não
+    // cresce com o tamanho do histórico. Devolve false se não deu para arquivar
+    // (a lista é limpa do mesmo jeito e as tarefas continuam no snapshot quente).
+    public synchronized boolean finalizeDay() {
+        int previousSize = store.rowCount();
+        boolean archived = store.size() == 0 || seal();
+        if (archived) {
+            firstId += store.size(); // Os IDs continuam de onde o dia fechado parou
+            store = new TaskStore();
+            tagIndex = new TagIndex();
+            searchIndex = new SearchIndex();
+            stats = new TaskStats();
+            descriptionIndex = null;
+            viewWriter.reset(store);
+        } else {
+            compact(); // Consolida o histórico antes de apagar
+            store.clearRows();
+        }
+        publish();
+        undoLog.clear(); // As linhas registradas eram do dia que acabou de ser fechado
+        fireReset(previousSize);
+        journal.scheduleMainFile(mainFileLines()); // Sobrescreve o arquivo principal
+        return archived;
+    }
+
+    private boolean seal() {
+        byte[] snapshot = historySnapshot().toByteArray();
+        long checksum = HistoryStore.checksum(snapshot);
+        String name = archive.nextSegmentName();
+        File dir = archive.manifestFile().getParentFile();
+        if (!dir.isDirectory() && !dir.mkdirs()) {
+            System.err.println("Erro ao criar a pasta do arquivo: " + dir);
+            return false;
+        }
+
+        List<String> manifest = archive.manifestLines();
+        manifest.add(HistoryArchive.manifestLine(name, store.size(), checksum));
+        TaskJournal.Seal target = new TaskJournal.Seal(archive.segmentFile(name), archive.indexFile(name),
+                archive.statsFile(name), stats.toByteArray(checksum), archive.manifestFile(), manifest);
+        if (!journal.seal(snapshot, store.size(), searchIndex.toByteArray(), mainFileLines(), target)) {
+            System.err.println("Erro ao arquivar o dia: as tarefas continuam no histórico atual.");
+            return false;
+        }
+        archive.addSegment(name, snapshot, store.size(), checksum, stats, searchIndex);
+        return true;
+    }
+
+    // Grava imediatamente o que estiver pendente
+    public void flush() {
+        journal.flushNow();
+    }
+
+    // Grava as alterações pendentes e encerra a thread de persistência
+    public void shutdown() {
+        journal.close();
+    }
+
+    // Publica o store para as leituras sem trava; sempre antes de avisar os listeners
+    private void publish() {
+        view = viewWriter.publish(store, firstId);
+    }
+
+    private void publishRowsFrom(int row) {
+        viewWriter.rows(store, row, store.rowCount());
+        publish();
+    }
+
+    private void fireReset(int previousSize) {
+        for (Listener listener : listeners) {
+            listener.rowsReset(previousSize);
+        }
+    }
+
+    // Persistência
+
+    private String dataFile(String name) {
+        return new File(dataDir, name).getPath();
+    }
+
+    // As linhas são montadas na thread de quem chama; a gravação fica com o PersistenceWorker
+    private List<String> mainFileLines() {
+        return TaskJournal.mainLines(view);
+    }
+
+    private HistoryStore.Builder historySnapshot() {
+        HistoryStore.Builder builder = new HistoryStore.Builder();
+        builder.addAll(store);
+        return builder;
+    }
+
+    // Agenda um snapshot completo e o reinício do diário. Só acontece a cada
+    // JOURNAL_COMPACT_THRESHOLD alterações, e aqui só passa o retrato já
+    // publicado: snapshot, índice e arquivo principal são montados pelo
+    // PersistenceWorker, então a alteração que disparou não paga O(dia).
+    private void compact() {
+        journal.scheduleSnapshot(view);
+    }
+
+    private void appendToJournal(String record) {
+        journal.append(record);
+        compactIfNeeded();
+    }
+
+    // Estado lido do disco por readSnapshot(), ainda fora do repositório
+    public static final class Snapshot {
+        private final TaskStore store;
+        private final TagIndex tagIndex;
+        private final SearchIndex searchIndex;
+        private final boolean rebuiltSearchIndex;
+        private final TaskStats stats;
+        private final HistoryArchive archive;
+        private final boolean sealInterrupted; // O snapshot do dia já estava arquivado
+
+        private Snapshot(TaskStore store, TagIndex tagIndex, SearchIndex searchIndex, TaskStats stats,
+                         boolean rebuiltSearchIndex, HistoryArchive archive, boolean sealInterrupted) {
+            this.store = store;
+            this.tagIndex = tagIndex;
+            this.searchIndex = searchIndex;
+            this.stats = stats;
+            this.rebuiltSearchIndex = rebuiltSearchIndex;
+            this.archive = archive;
+            this.sealInterrupted = sealInterrupted;
+        }
+    }
+
+    public void load() {
+        install(readSnapshot(progress -> { }));
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // Quem roda carga ou importação em segundo plano marca o início e o fim
+    // (endBackgroundWork num finally): até terminar, a lista não pode ser
+    // fechada, senão install()/addBatch() encontrariam o diário já fechado
+    public void beginBackgroundWork() {
+        if (!tryBeginBackgroundWork()) throw new IllegalStateException("Lista já fechada");
+    }
+
+    // Como beginBackgroundWork(), mas devolve false se a lista já foi fechada
+    // por closeIfIdle() (ex.: um lembrete que venceu enquanto ela saía da memória)
+    public boolean tryBeginBackgroundWork() {
+        int count;
+        do {
+            count = backgroundWork.get();
+            if (count < 0) return false;
+        } while (!backgroundWork.compareAndSet(count, count + 1));
+        return true;
+    }
+
+    public void endBackgroundWork() {
+        backgroundWork.decrementAndGet();
+    }
+
+    // Fecha a lista se nada estiver rodando em segundo plano; a partir daqui
+    // tryBeginBackgroundWork() recusa. Devolve false se estava ocupada.
+    public boolean closeIfIdle() {
+        if (!backgroundWork.compareAndSet(0, -1)) return false;
+        shutdown();
+        return true;
+    }
+
+    // Prévia somente leitura: as primeiras tarefas do snapshot, para a janela
+    // ter o que mostrar enquanto a carga completa roda em segundo plano
+    public synchronized void loadPreview(int rows) {
+        File file = new File(dataFile(FILE_HISTORY));
+        if (!file.exists()) return;
+
+        int previousSize = store.rowCount();
+        TaskStore preview = new TaskStore();
+        try {
+            HistoryStore history = HistoryStore.open(file);
+            for (int i = 0; i < Math.min(rows, history.size()); i++) {
+                preview.add(history.description(i), history.tags(i), history.priority(i),
+                        history.createdAt(i), history.isCompleted(i), history.completedAt(i));
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao ler a prévia das tarefas: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+        preview.showAll();
+        store = preview;
+        viewWriter.reset(store);
+        publish();
+        fireReset(previousSize);
+    }
+
+    // Lê snapshot e diário e monta os índices sem tocar no estado do
+    // repositório, então pode rodar fora da EDT; o resultado só aparece com
+    // install(). O progresso (0 a 100) é informado ao fim de cada fase.
+    public Snapshot readSnapshot(IntConsumer progress) {
+        long start = System.nanoTime();
+        long timed = LOAD_READ.start();
+        TaskStore loadedStore = new TaskStore();
+
+        File file = new File(dataFile(FILE_HISTORY));
+        if (!file.exists()) {
+            migrateLegacyHistory(file);
+        }
+        HistoryArchive loadedArchive = HistoryArchive.open(new File(dataDir, DIR_ARCHIVE)); // Só o manifesto
+        long historyChecksum = 0;
+        boolean sealInterrupted = false;
+        if (file.exists()) {
+            try {
+                HistoryStore history = HistoryStore.open(file);
+                progress.accept(10);
+                // Igual ao último dia arquivado: o "Finalizar dia" gravou o segmento
+                // mas não chegou a zerar o snapshot, então o dia começa vazio
+                sealInterrupted = history.size() > 0 && history.checksum() == loadedArchive.lastChecksum();
+                if (sealInterrupted) {
+                    System.err.println("Snapshot do dia já arquivado; descartado.");
+                } else {
+                    loadedStore.addAll(history); // Decodifica em paralelo
+                    historyChecksum = history.checksum();
+                }
+            } catch (IOException e) {
+                System.err.println("Erro ao carregar tarefas: " + e.getMessage());
+                e.printStackTrace();
+                Metrics.error("carga", e);
+            }
+        }
+        StartupLog.phase("snapshot do histórico (" + loadedStore.size() + " tarefas)", start);
+        progress.accept(50);
+
+        // Índice de busca gravado com o snapshot; o diário é aplicado nele também.
+        // Se não existir ou não corresponder, é reconstruído depois do diário.
+        long phaseStart = System.nanoTime();
+        SearchIndex loadedSearchIndex = SearchIndex.read(new File(dataFile(FILE_SEARCH_INDEX)),
+                historyChecksum, loadedStore.size());
+        progress.accept(60);
+
+        // Reaplica as alterações feitas depois do último snapshot
+        List<String> records = journal.readRecords(loadedStore.size());
+        for (int i = 0; i < records.size(); i++) {
+            boolean last = i == records.size() - 1;
+            if (!replayRecord(loadedStore, loadedSearchIndex, records.get(i), last) && last) {
+                // Gravação interrompida no meio da última linha (queda de energia,
+                // app encerrado): o registro nunca chegou a existir por inteiro
+                System.err.println("Último registro do diário incompleto; descartado: " + records.get(i));
+                journal.dropLastRecord();
+            }
+        }
+        StartupLog.phase("índice de busca e diário", phaseStart);
+        progress.accept(70);
+
+        phaseStart = System.nanoTime();
+        boolean rebuiltSearchIndex = loadedSearchIndex == null;
+        if (rebuiltSearchIndex) {
+            loadedSearchIndex = new SearchIndex();
+            for (int id = 0; id < loadedStore.size(); id++) {
+                loadedSearchIndex.add(id, loadedStore.description(id), loadedStore.tags(id));
+            }
+        }
+
+        TagIndex loadedTagIndex = new TagIndex();
+        TaskStats loadedStats = new TaskStats(); // Só o dia atual; os dias fechados têm as suas no arquivo
+        for (int id = 0; id < loadedStore.size(); id++) {
+            loadedTagIndex.add(id, loadedStore.tags(id), loadedStore.priority(id));
+            loadedStats.add(loadedStore, id);
+        }
+        StartupLog.phase(rebuiltSearchIndex ? "índices (busca reconstruída)" : "índices de tags e estatísticas", phaseStart);
+        progress.accept(100);
+        LOAD_READ.stop(timed);
+
+        return new Snapshot(loadedStore, loadedTagIndex, loadedSearchIndex, loadedStats, rebuiltSearchIndex,
+                loadedArchive, sealInterrupted);
+    }
+
+    // Troca o estado do repositório pelo que foi lido (na thread de quem usa o repositório)
+    public synchronized void install(Snapshot snapshot) {
+        long start = LOAD_INSTALL.start();
+        int previousSize = store.rowCount();
+        store = snapshot.store;
+        tagIndex = snapshot.tagIndex;
+        searchIndex = snapshot.searchIndex;
+        stats = snapshot.stats;
+        archive = snapshot.archive;
+        firstId = archive.size();
+        descriptionIndex = null;
+        undoLog.clear();
+        loaded = true;
+
+        store.showAll();
+        viewWriter.reset(store);
+        publish();
+        fireReset(previousSize);
+
+        if (journal.needsCompaction() || snapshot.sealInterrupted
+                || (snapshot.rebuiltSearchIndex && store.size() > 0)) {
+            compact(); // Grava também o índice reconstruído, para a próxima abertura
+        }
+        LOAD_INSTALL.stop(start);
+    }
+
+    // Converte o tasks_history.txt antigo para o formato binário. O arquivo de
+    // texto é mantido como backup; o diário continua válido porque o número de
+    // tarefas do snapshot é o mesmo.
+    private void migrateLegacyHistory(File target) {
+        File legacy = new File(dataFile(FILE_LEGACY_HISTORY));
+        if (!legacy.exists()) return;
+
+        TaskStore legacyTasks = new TaskStore();
+        try (BufferedReader reader = new BufferedReader(new FileReader(legacy))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (parseTask(legacyTasks, line) < 0) {
+                    System.err.println("Linha malformada: " + line);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Erro ao converter o histórico antigo: " + e.getMessage());
+            e.printStackTrace();
+            return;
+        }
+
+        HistoryStore.Builder builder = new HistoryStore.Builder();
+        builder.addAll(legacyTasks);
+        if (TaskJournal.writeAtomically(target, builder.toByteArray())) {
+            StartupLog.note("histórico convertido para o formato binário: " + builder.size() + " tarefas");
+        }
+    }
+
+    // Lê uma linha no formato de texto do histórico e devolve o ID criado (-1 se
+    // malformada). Versões antigas gravavam o ';' de descrições e tags sem trocar:
+    // os campos fixos (concluída, criação, conclusão) são achados pelo formato e o
+    // que sobra antes deles é a descrição; depois, as tags e a prioridade.
+    private static int parseTask(TaskStore target, String line) {
+        String[] parts = line.split(";", -1);
+        for (int i = 1; i + 4 < parts.length; i++) {
+            if (!parts[i].equals("true") && !parts[i].equals("false")) continue;
+            try {
+                long created = Long.parseLong(parts[i + 1]);
+                long completed = parts[i + 2].equals("null") ? TaskStore.NO_DATE : Long.parseLong(parts[i + 2]);
+                int priority = Integer.parseInt(parts[parts.length - 1]);
+                if (priority < 1 || priority > 3) priority = 2; // Fora de 1 a 3: média, como na importação
+                String desc = TaskStore.clean(String.join(",", Arrays.copyOfRange(parts, 0, i)));
+                String tags = TaskStore.clean(String.join(",", Arrays.copyOfRange(parts, i + 3, parts.length - 1)));
+                return target.add(desc, tags, priority, created, Boolean.parseBoolean(parts[i]), completed);
+            } catch (NumberFormatException e) {
+                // Um "true"/"false" dentro da descrição: tenta a próxima posição
+            }
+        }
+        return -1;
+    }
+
+    // Devolve false se o registro não pôde ser aplicado
+    private static boolean replayRecord(TaskStore store, SearchIndex searchIndex, String record, boolean last) {
+        String[] parts = record.split(";", 2);
+        if (parts[0].equals(TaskJournal.OP_ADD)) {
+            // Os IDs são posições no histórico: pular uma tarefa no meio deslocaria
+            // todos os registros seguintes, e a compactação tornaria a perda
+            // definitiva. A carga falha e a lista fica só leitura, com o diário
+            // intacto no disco. Só a última linha pode ser uma gravação cortada.
+            int id = parts.length == 2 ? parseTask(store, parts[1]) : -1;
+            if (id < 0) {
+                if (last) return false;
+                throw new IllegalStateException("Registro de tarefa ilegível no diário: " + record);
+            }
+            if (searchIndex != null) {
+                searchIndex.add(id, store.description(id), store.tags(id));
+            }
+            return true;
+        }
+        try {
+            switch (parts[0]) {
+                case TaskJournal.OP_TOGGLE -> {
+                    String[] fields = parts[1].split(";");
+                    int id = Integer.parseInt(fields[0]);
+                    long completed = fields[2].equals("null") ? TaskStore.NO_DATE : Long.parseLong(fields[2]);
+                    store.setCompleted(id, Boolean.parseBoolean(fields[1]), completed);
+                }
+                case TaskJournal.OP_UPDATE -> {
+                    String[] fields = parts[1].split(";", 2);
+                    int id = Integer.parseInt(fields[0]);
+                    String description = TaskStore.clean(fields[1]); // Gravado antes da troca do ';'
+                    if (searchIndex != null) {
+                        searchIndex.update(id, store.description(id), description, store.tags(id));
+                    }
+                    store.setDescription(id, description);
+                }
+                default -> {
+                    if (last) return false;
+                    System.err.println("Registro desconhecido no diário: " + record);
+                }
+            }
+        } catch (RuntimeException e) {
+            if (last) return false;
+            System.err.println("Registro inválido no diário: " + record);
+        }
+        return true;
+    }
+}
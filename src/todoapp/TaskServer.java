@@ -0,0 +1,369 @@
+package todoapp;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// API HTTP/JSON local sobre o mesmo TaskRepository da janela, para scripts e
+// outras ferramentas. Só escuta em 127.0.0.1.
+//
+//   GET  /tasks?offset=0&limit=100   linhas da lista
+//   POST /tasks                      {"description": "...", "tags": "a,b", "priority": 1}
+//   POST /tasks/{id}/toggle          marca/desmarca a tarefa
+//   GET  /search?q=...&limit=50      busca em todo o histórico
+//
+// Um ID só para tudo: a posição da tarefa no histórico inteiro (dias fechados
+// + dia atual), que não muda nem se repete depois do "Finalizar dia". Um ID
+// da busca que não está mais na lista responde 404 no toggle.
+//
+// Cada requisição roda numa thread virtual. As leituras saem direto do
+// TaskView publicado pelo repositório, sem trava. As alterações entram numa
+// fila e são aplicadas em grupo numa thread só (a EDT, no app): tarefas novas
+// que chegam juntas viram um único addBatch(), com uma compactação só no fim
+// do grupo; a gravação em disco continua agrupada pelo PersistenceWorker.
+public class TaskServer {
+    private static final int DEFAULT_LIMIT = 100;
+    private static final int MAX_LIMIT = 1000;
+    private static final Metrics.Timer REQUESTS = Metrics.timer("api");
+
+    private final Supplier<TaskRepository> repositories; // A lista ativa no momento
+    private final Executor repositoryThread;
+    private final HttpServer server;
+    private final ExecutorService requestThreads = Executors.newVirtualThreadPerTaskExecutor();
+    private final ConcurrentLinkedQueue<Pending> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean();
+
+    // Operação aguardando a thread do repositório; `task` != null é uma tarefa nova
+    private static final class Pending {
+        final TaskStore task;
+        final Function<TaskRepository, Response> action;
+        final CompletableFuture<Response> result = new CompletableFuture<>();
+
+        Pending(TaskStore task, Function<TaskRepository, Response> action) {
+            this.task = task;
+            this.action = action;
+        }
+    }
+
+    private record Response(int status, String body) {
+    }
+
+    // repositoryThread aplica as alterações em fila (ex.: SwingUtilities::invokeLater)
+    public TaskServer(TaskRepository repository, Executor repositoryThread, int port) throws IOException {
+        this(() -> repository, repositoryThread, port);
+    }
+
+    // Com várias listas (Workspaces), cada requisição usa a que estiver ativa
+    public TaskServer(Supplier<TaskRepository> repositories, Executor repositoryThread, int port) throws IOException {
+        this.repositories = repositories;
+        this.repositoryThread = repositoryThread;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+        server.setExecutor(requestThreads);
+        server.createContext("/tasks", this::handleTasks);
+        server.createContext("/search", this::handleSearch);
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    // Porta real (útil quando o servidor foi criado com a porta 0)
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    public void stop() {
+        server.stop(0);
+        requestThreads.shutdown();
+    }
+
+    // Rotas
+
+    private void handleTasks(HttpExchange exchange) throws IOException {
+        handle(exchange, this::routeTasks);
+    }
+
+    private void handleSearch(HttpExchange exchange) throws IOException {
+        handle(exchange, this::search);
+    }
+
+    // Um erro inesperado vira 500 em vez de derrubar a conexão sem resposta, e a
+    // requisição entra na métrica de qualquer jeito
+    private void handle(HttpExchange exchange, Route route) throws IOException {
+        long start = REQUESTS.start();
+        try {
+            Response response;
+            try {
+                response = route.respond(exchange);
+            } catch (RuntimeException e) {
+                System.err.println("Erro na API de tarefas: " + e.getMessage());
+                e.printStackTrace();
+                Metrics.error("api", e);
+                response = error(500, "erro interno");
+            }
+            send(exchange, response);
+        } finally {
+            REQUESTS.stop(start);
+        }
+    }
+
+    private interface Route {
+        Response respond(HttpExchange exchange) throws IOException;
+    }
+
+    private Response routeTasks(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        if (path.equals("/tasks") || path.equals("/tasks/")) {
+            if (method.equals("GET")) return list(queryParams(exchange));
+            if (method.equals("POST")) return add(readBody(exchange));
+            return error(405, "método não suportado");
+        }
+        // "/tasks/toggle" e "/tasks//toggle" não têm ID entre as duas partes
+        if (path.startsWith("/tasks/") && path.endsWith("/toggle")
+                && path.length() > "/tasks/".length() + "/toggle".length()) {
+            return method.equals("POST")
+                    ? toggle(path.substring("/tasks/".length(), path.length() - "/toggle".length()))
+                    : error(405, "método não suportado");
+        }
+        return error(404, "rota inexistente");
+    }
+
+    private Response search(HttpExchange exchange) {
+        Map<String, String> params = queryParams(exchange);
+        String query = params.getOrDefault("q", "");
+        TaskRepository repository = repositories.get();
+        if (!exchange.getRequestMethod().equals("GET")) return error(405, "método não suportado");
+        if (query.isBlank()) return error(400, "parâmetro q obrigatório");
+        if (!repository.isLoaded()) return error(503, "tarefas ainda carregando");
+
+        int[] positions = repository.search(query, limit(params, 50));
+        TaskHistory history = repository.fullHistory(); // Posições já buscadas continuam valendo nele
+        StringBuilder json = new StringBuilder("{\"hits\":[");
+        for (int i = 0; i < positions.length; i++) {
+            if (i > 0) json.append(',');
+            int id = positions[i]; // A posição em fullHistory() é o ID
+            json.append("{\"id\":").append(id).append(",\"description\":");
+            TaskTransfer.appendJsonString(json, history.description(id));
+            json.append(",\"completed\":").append(history.isCompleted(id)).append('}');
+        }
+        return new Response(200, json.append("]}").toString());
+    }
+
+    private Response list(Map<String, String> params) {
+        int offset;
+        try {
+            offset = Math.max(0, Integer.parseInt(params.getOrDefault("offset", "0")));
+        } catch (NumberFormatException e) {
+            return error(400, "offset inválido");
+        }
+        int limit = limit(params, DEFAULT_LIMIT);
+        TaskRepository repository = repositories.get();
+        if (!repository.isLoaded()) return error(503, "tarefas ainda carregando");
+
+        TaskView view = repository.view(); // Uma versão só para a página inteira
+        int total = view.rowCount();
+        StringBuilder json = new StringBuilder("{\"total\":").append(total).append(",\"tasks\":[");
+        for (int row = offset; row < Math.min(total, offset + limit); row++) {
+            if (row > offset) json.append(',');
+            int id = view.idAt(row);
+            json.append("{\"id\":").append(view.taskId(row)).append(",\"row\":").append(row).append(",\"description\":");
+            TaskTransfer.appendJsonString(json, view.description(id));
+            json.append(",\"tags\":");
+            TaskTransfer.appendJsonString(json, view.tags(id));
+            json.append(",\"priority\":").append(view.priority(id))
+                    .append(",\"completed\":").append(view.isCompleted(id)).append('}');
+        }
+        return new Response(200, json.append("]}").toString());
+    }
+
+    private Response add(String body) {
+        TaskStore task = new TaskStore();
+        try {
+            if (!TaskTransfer.addTo(task, TaskTransfer.parseJsonObject(body))) {
+                return error(400, "tarefa sem descrição ou com campos inválidos");
+            }
+        } catch (IllegalArgumentException e) {
+            return error(400, "JSON inválido: " + e.getMessage());
+        }
+        return await(new Pending(task, null));
+    }
+
+    private Response toggle(String idText) {
+        int id;
+        try {
+            id = Integer.parseInt(idText);
+        } catch (NumberFormatException e) {
+            return error(400, "ID inválido");
+        }
+        return await(new Pending(null, repository -> {
+            synchronized (repository) { // Linha e alteração de uma vez, mesmo com outras threads escrevendo
+                int row = repository.rowOf(id);
+                if (row < 0) return error(404, "tarefa " + id + " não está na lista");
+                repository.toggleExternal(row);
+                return new Response(200, "{\"id\":" + id + ",\"completed\":" + repository.isCompleted(row) + "}");
+            }
+        }));
+    }
+
+    // Fila de alterações
+
+    // A thread virtual fica parada aqui sem segurar uma thread do sistema
+    private Response await(Pending pending) {
+        queue.add(pending);
+        if (drainScheduled.compareAndSet(false, true)) {
+            repositoryThread.execute(this::drain);
+        }
+        try {
+            return pending.result.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return error(503, "interrompido");
+        } catch (ExecutionException e) {
+            System.err.println("Erro na API de tarefas: " + e.getCause().getMessage());
+            e.getCause().printStackTrace();
+            Metrics.error("api", e.getCause());
+            return error(500, "erro interno");
+        }
+    }
+
+    // Na thread de escrita: aplica tudo o que estiver na fila, na ordem de chegada
+    private void drain() {
+        drainScheduled.set(false); // Quem chegar depois daqui agenda outra passada
+        List<Pending> added = new ArrayList<>();
+        Pending pending = null;
+        try {
+            TaskRepository repository = repositories.get();
+            TaskStore batch = new TaskStore();
+            while ((pending = queue.poll()) != null) {
+                if (!repository.isLoaded()) {
+                    pending.result.complete(error(503, "tarefas ainda carregando"));
+                } else if (pending.task != null) {
+                    TaskStore task = pending.task;
+                    added.add(pending);
+                    batch.add(task.description(0), task.tags(0), task.priority(0),
+                            task.createdAt(0), task.isCompleted(0), task.completedAt(0));
+                } else {
+                    addAll(repository, batch, added); // Mantém a ordem: as tarefas anteriores entram antes
+                    batch = new TaskStore();
+                    added.clear();
+                    try {
+                        pending.result.complete(pending.action.apply(repository));
+                    } catch (RuntimeException e) {
+                        pending.result.completeExceptionally(e);
+                    }
+                }
+            }
+            addAll(repository, batch, added);
+            added.clear();
+            repository.compactIfNeeded(); // Uma compactação no máximo por passada
+        } catch (RuntimeException e) {
+            // Ninguém fica esperando para sempre: o lote que falhou responde 500 em
+            // await() (as já respondidas não mudam) e o resto da fila ganha outra passada
+            for (Pending failed : added) {
+                failed.result.completeExceptionally(e);
+            }
+            if (pending != null) pending.result.completeExceptionally(e);
+            if (!queue.isEmpty() && drainScheduled.compareAndSet(false, true)) {
+                repositoryThread.execute(this::drain);
+            }
+        }
+    }
+
+    private static void addAll(TaskRepository repository, TaskStore batch, List<Pending> added) {
+        if (added.isEmpty()) return;
+        int firstId = repository.addBatchExternal(batch);
+        for (int i = 0; i < added.size(); i++) {
+            added.get(i).result.complete(new Response(201, "{\"id\":" + (firstId + i) + "}"));
+        }
+    }
+
+    // HTTP
+
+    private static Response error(int status, String message) {
+        StringBuilder json = new StringBuilder("{\"error\":");
+        TaskTransfer.appendJsonString(json, message);
+        return new Response(status, json.append('}').toString());
+    }
+
+    private static int limit(Map<String, String> params, int fallback) {
+        try {
+            return Math.max(1, Math.min(MAX_LIMIT, Integer.parseInt(params.getOrDefault("limit", String.valueOf(fallback)))));
+        } catch (NumberFormatException e) {
+            return fallback;
+        }
+    }
+
+    private static Map<String, String> queryParams(HttpExchange exchange) {
+        Map<String, String> params = new HashMap<>();
+        String query = exchange.getRequestURI().getRawQuery();
+        if (query == null) return params;
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq > 0) {
+                params.put(URLDecoder.decode(pair.substring(0, eq), StandardCharsets.UTF_8),
+                        URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8));
+            }
+        }
+        return params;
+    }
+
+    private static String readBody(HttpExchange exchange) throws IOException {
+        try (InputStream in = exchange.getRequestBody()) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, Response response) throws IOException {
+        byte[] body = response.body().getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+        exchange.sendResponseHeaders(response.status(), body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    // Servidor sem janela: java -cp ... todoapp.TaskServer [porta] [pasta]
+    public static void main(String[] args) throws IOException {
+        int port = args.length > 0 ? Integer.parseInt(args[0]) : 8080;
+        File dir = new File(args.length > 1 ? args[1] : ".");
+
+        // Uma única thread é dona do repositório, como a EDT no app
+        ExecutorService repositoryThread = Executors.newSingleThreadExecutor(r -> new Thread(r, "todoapp-repository"));
+        TaskRepository repository = new TaskRepository(dir);
+        try {
+            repositoryThread.submit(repository::load).get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IOException("Erro ao carregar tarefas", e);
+        }
+
+        TaskServer server = new TaskServer(repository, repositoryThread, port);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            server.stop();
+            try {
+                repositoryThread.submit(repository::shutdown).get();
+            } catch (InterruptedException | ExecutionException e) {
+                e.printStackTrace();
+            }
+            Metrics.dumpOnExit();
+        }));
+        server.start();
+        System.out.println("API de tarefas em http://127.0.0.1:" + server.port() + "/tasks"); // Só no modo sem janela
+    }
+}
@@ -0,0 +1,213 @@
+package todoapp;
+
+import java.io.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.*;
+
+// Estatísticas de produtividade já agregadas: um balde por dia (criadas,
+// concluídas e soma dos tempos até a conclusão) e contadores por tag e por
+// prioridade. Cada alteração só mexe nos contadores da tarefa alterada, então
+// o painel abre sem percorrer o histórico.
+//
+// Cada dia arquivado grava as suas junto do segmento (<dia>.stats); o dia
+// atual é mantido em memória pelo TaskRepository.
+public class TaskStats {
+    private static final int MAGIC = 0x54445331; // "TDS1"
+    private static final int VERSION = 1;
+    private static final int PRIORITIES = 4; // 1 a 3; o 0 fica para valores fora da faixa
+
+    // Dia (epochDay) -> [criadas, concluídas, soma dos tempos até concluir em ms]
+    private final TreeMap<Long, long[]> days = new TreeMap<>();
+    // Tag -> [tarefas, concluídas]
+    private final TreeMap<String, int[]> tags = new TreeMap<>();
+    private final int[][] priorities = new int[PRIORITIES][2];
+    private int total;
+    private int completed;
+
+    public void add(TaskHistory history, int id) {
+        apply(history, id, 1);
+    }
+
+    // Desfaz add() com os valores atuais da tarefa (ex.: antes de alternar a conclusão)
+    public void remove(TaskHistory history, int id) {
+        apply(history, id, -1);
+    }
+
+    private void apply(TaskHistory history, int id, int sign) {
+        boolean done = history.isCompleted(id);
+        total += sign;
+        bucket(history.createdAt(id))[0] += sign;
+        if (done) {
+            completed += sign;
+            long[] day = bucket(history.completedAt(id));
+            day[1] += sign;
+            day[2] += sign * Math.max(0, history.completedAt(id) - history.createdAt(id));
+        }
+
+        int p = history.priority(id);
+        int[] byPriority = priorities[p > 0 && p < PRIORITIES ? p : 0];
+        byPriority[0] += sign;
+        if (done) byPriority[1] += sign;
+
+        for (String tag : new LinkedHashSet<>(TagIndex.parseTags(history.tags(id)))) { // Tag repetida conta uma vez
+            int[] byTag = tags.computeIfAbsent(tag, t -> new int[2]);
+            byTag[0] += sign;
+            if (done) byTag[1] += sign;
+            if (byTag[0] == 0) tags.remove(tag);
+        }
+    }
+
+    private long[] bucket(long millis) {
+        return days.computeIfAbsent(epochDay(millis), d -> new long[3]);
+    }
+
+    private static long epochDay(long millis) {
+        return Instant.ofEpochMilli(millis).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+    }
+
+    // Soma outras estatísticas nestas (ex.: segmentos arquivados + dia atual)
+    public void merge(TaskStats other) {
+        total += other.total;
+        completed += other.completed;
+        for (Map.Entry<Long, long[]> entry : other.days.entrySet()) {
+            long[] day = days.computeIfAbsent(entry.getKey(), d -> new long[3]);
+            for (int i = 0; i < day.length; i++) {
+                day[i] += entry.getValue()[i];
+            }
+        }
+        for (Map.Entry<String, int[]> entry : other.tags.entrySet()) {
+            int[] byTag = tags.computeIfAbsent(entry.getKey(), t -> new int[2]);
+            byTag[0] += entry.getValue()[0];
+            byTag[1] += entry.getValue()[1];
+        }
+        for (int p = 0; p < PRIORITIES; p++) {
+            priorities[p][0] += other.priorities[p][0];
+            priorities[p][1] += other.priorities[p][1];
+        }
+    }
+
+    public static TaskStats of(TaskHistory history) {
+        TaskStats stats = new TaskStats();
+        for (int id = 0; id < history.size(); id++) {
+            stats.add(history, id);
+        }
+        return stats;
+    }
+
+    // Consultas
+
+    public int total() {
+        return total;
+    }
+
+    public int completed() {
+        return completed;
+    }
+
+    // Tarefas concluídas em cada um dos `count` períodos de `length` dias
+    // terminados em `last` (o último período é o mais recente)
+    public int[] completionsPerPeriod(LocalDate last, int length, int count) {
+        int[] result = new int[count];
+        long end = last.toEpochDay();
+        long start = end - (long) length * count + 1;
+        for (Map.Entry<Long, long[]> entry : days.subMap(start, true, end, true).entrySet()) {
+            result[(int) ((entry.getKey() - start) / length)] += (int) entry.getValue()[1];
+        }
+        return result;
+    }
+
+    // Tempo médio entre criar e concluir, em ms (-1 se nada foi concluído)
+    public long averageCompletionMillis() {
+        long sum = 0;
+        long count = 0;
+        for (long[] day : days.values()) {
+            count += day[1];
+            sum += day[2];
+        }
+        return count > 0 ? sum / count : -1;
+    }
+
+    // [tarefas, concluídas] da prioridade (1 a 3)
+    public int[] priority(int priority) {
+        return priorities[priority].clone();
+    }
+
+    // Tag -> [tarefas, concluídas], em ordem alfabética
+    public SortedMap<String, int[]> tags() {
+        TreeMap<String, int[]> copy = new TreeMap<>();
+        for (Map.Entry<String, int[]> entry : tags.entrySet()) {
+            copy.put(entry.getKey(), entry.getValue().clone());
+        }
+        return copy;
+    }
+
+    // Persistência
+
+    // Gravadas junto com o segmento, com o checksum dele
+    public byte[] toByteArray(long historyChecksum) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        try {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(historyChecksum);
+            out.writeInt(total);
+            out.writeInt(completed);
+            out.writeInt(days.size());
+            for (Map.Entry<Long, long[]> entry : days.entrySet()) {
+                out.writeLong(entry.getKey());
+                for (long value : entry.getValue()) {
+                    out.writeLong(value);
+                }
+            }
+            out.writeInt(tags.size());
+            for (Map.Entry<String, int[]> entry : tags.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue()[0]);
+                out.writeInt(entry.getValue()[1]);
+            }
+            for (int[] byPriority : priorities) {
+                out.writeInt(byPriority[0]);
+                out.writeInt(byPriority[1]);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    // Devolve null se o arquivo não existir ou não for do segmento esperado
+    public static TaskStats read(File file, long historyChecksum) {
+        if (!file.exists()) return null;
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) return null;
+            if (in.readLong() != historyChecksum) return null;
+
+            TaskStats stats = new TaskStats();
+            stats.total = in.readInt();
+            stats.completed = in.readInt();
+            int dayCount = in.readInt();
+            for (int i = 0; i < dayCount; i++) {
+                long key = in.readLong();
+                stats.days.put(key, new long[]{in.readLong(), in.readLong(), in.readLong()});
+            }
+            int tagCount = in.readInt();
+            for (int i = 0; i < tagCount; i++) {
+                String tag = in.readUTF();
+                stats.tags.put(tag, new int[]{in.readInt(), in.readInt()});
+            }
+            for (int[] byPriority : stats.priorities) {
+                byPriority[0] = in.readInt();
+                byPriority[1] = in.readInt();
+            }
+            return stats;
+        } catch (IOException e) {
+            System.err.println("Erro ao ler as estatísticas: " + e.getMessage());
+            e.printStackTrace();
+            return null;
+        }
+    }
+}
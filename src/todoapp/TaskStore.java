@@ -0,0 +1,311 @@
+package todoapp;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+// Fonte única de verdade das tarefas. Cada tarefa tem um ID estável (a
+// posição no histórico do dia, que só cresce; o TaskRepository soma as
+// tarefas dos dias fechados antes de expor o ID) e os campos ficam em arrays paralelos
+// com datas em long, sem um objeto por tarefa. A lista exibida é só um array
+// de IDs na ordem das linhas, então reordenar ou remover da lista nunca
+// desloca os dados das tarefas.
+public class TaskStore implements TaskHistory {
+    public static final long NO_DATE = HistoryStore.NO_DATE;
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int DECODE_CHUNK = 16384; // Registros decodificados por tarefa paralela
+
+    private String[] descriptions = new String[INITIAL_CAPACITY];
+    private String[] tags = new String[INITIAL_CAPACITY]; // Separadas por vírgula
+    private byte[] priorities = new byte[INITIAL_CAPACITY];
+    private long[] createdAt = new long[INITIAL_CAPACITY];
+    private final CompletionSet completion = new CompletionSet(INITIAL_CAPACITY);
+    private int size;
+
+    private int[] order = new int[INITIAL_CAPACITY]; // Linha da lista -> ID
+    private int rowCount;
+    // ID -> linha, atualizado sob demanda: vale para as linhas abaixo de
+    // indexedRows; uma alteração na linha r só invalida de r em diante
+    private int[] rowOf = new int[INITIAL_CAPACITY];
+    private int indexedRows;
+    private final BitSet listed = new BitSet(); // IDs presentes na lista exibida
+    private int completedRows; // Concluídas entre as linhas exibidas, mantido a cada alteração
+
+    public int add(String description, String tagList, int priority, long created, boolean isCompleted, long completedTime) {
+        if (size == descriptions.length) {
+            ensureCapacity(size * 2);
+        }
+        int id = size++;
+        descriptions[id] = description;
+        tags[id] = tagList;
+        priorities[id] = (byte) priority;
+        createdAt[id] = created;
+        if (isCompleted) {
+            completion.add(id, completedTime);
+        }
+        return id;
+    }
+
+    // Carga inicial: os textos do snapshot (a parte cara, decodificar UTF-8)
+    // são decodificados em blocos em paralelo no ForkJoinPool comum, direto nos
+    // arrays já alocados; os campos numéricos e a conclusão são preenchidos em
+    // ordem depois, numa passada simples.
+    public void addAll(HistoryStore history) {
+        int count = history.size();
+        int base = size;
+        ensureCapacity(base + count);
+
+        int chunks = (count + DECODE_CHUNK - 1) / DECODE_CHUNK;
+        IntStream.range(0, chunks).parallel().forEach(chunk -> {
+            int from = chunk * DECODE_CHUNK;
+            int to = Math.min(from + DECODE_CHUNK, count);
+            for (int i = from; i < to; i++) {
+                descriptions[base + i] = history.description(i);
+                tags[base + i] = history.tags(i);
+            }
+        });
+
+        for (int i = 0; i < count; i++) {
+            int id = base + i;
+            priorities[id] = (byte) history.priority(i);
+            createdAt[id] = history.createdAt(i);
+            if (history.isCompleted(i)) {
+                completion.add(id, history.completedAt(i));
+            }
+        }
+        size = base + count;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= descriptions.length) return;
+
+        descriptions = Arrays.copyOf(descriptions, capacity);
+        tags = Arrays.copyOf(tags, capacity);
+        priorities = Arrays.copyOf(priorities, capacity);
+        createdAt = Arrays.copyOf(createdAt, capacity);
+        rowOf = Arrays.copyOf(rowOf, capacity);
+        completion.ensureCapacity(capacity);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String description(int id) {
+        return descriptions[id];
+    }
+
+    @Override
+    public String tags(int id) {
+        return tags[id];
+    }
+
+    @Override
+    public int priority(int id) {
+        return priorities[id];
+    }
+
+    @Override
+    public long createdAt(int id) {
+        return createdAt[id];
+    }
+
+    @Override
+    public long completedAt(int id) {
+        return completion.completedAt(id);
+    }
+
+    @Override
+    public boolean isCompleted(int id) {
+        return completion.contains(id);
+    }
+
+    public void setDescription(int id, String description) {
+        descriptions[id] = description;
+    }
+
+    public void setCompleted(int id, boolean isCompleted, long completedTime) {
+        boolean changed = isCompleted ? completion.add(id, completedTime) : completion.remove(id);
+        if (changed && listed.get(id)) {
+            completedRows += isCompleted ? 1 : -1;
+        }
+    }
+
+    public String displayString(int id) {
+        return descriptions[id] + " [Prioridade: " + priorities[id] + ", Tags: " + tags[id].replace(",", ", ") + "]";
+    }
+
+    // O formato de texto do histórico (diário) separa campos com ';' e registros
+    // com quebra de linha: toda descrição e tag passa por aqui antes de ser gravada
+    public static String clean(String text) {
+        return text.replace(';', ',').replace('\r', ' ').replace('\n', ' ').trim();
+    }
+
+    // Linha no formato de texto do histórico (usado nos registros do diário)
+    public String fileString(int id) {
+        return String.join(";",
+                descriptions[id],
+                String.valueOf(isCompleted(id)),
+                String.valueOf(createdAt[id]),
+                completedAt(id) != NO_DATE ? String.valueOf(completedAt(id)) : "null",
+                tags[id],
+                String.valueOf(priorities[id])
+        );
+    }
+
+    // Ordem da lista exibida
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int idAt(int row) {
+        return order[row];
+    }
+
+    public int completedRowCount() {
+        return completedRows;
+    }
+
+    // Linha da tarefa na lista, ou -1 se ela não está na lista. Só reindexa a
+    // parte da lista que mudou desde a última consulta.
+    public int rowOf(int id) {
+        if (id < 0 || id >= size || !listed.get(id)) return -1;
+        if (rowOf[id] >= indexedRows || order[rowOf[id]] != id) {
+            for (int row = indexedRows; row < rowCount; row++) {
+                rowOf[order[row]] = row;
+            }
+            indexedRows = rowCount;
+        }
+        return rowOf[id];
+    }
+
+    private void invalidateRowsFrom(int row) {
+        indexedRows = Math.min(indexedRows, row);
+    }
+
+    public void appendRow(int id) {
+        if (rowCount == order.length) {
+            order = Arrays.copyOf(order, rowCount * 2);
+        }
+        if (indexedRows == rowCount) {
+            rowOf[id] = rowCount;
+            indexedRows++;
+        }
+        order[rowCount++] = id;
+        listed.set(id);
+        if (completion.contains(id)) {
+            completedRows++;
+        }
+    }
+
+    public void moveRow(int from, int to) {
+        int id = order[from];
+        if (from < to) {
+            System.arraycopy(order, from + 1, order, from, to - from);
+        } else {
+            System.arraycopy(order, to, order, to + 1, from - to);
+        }
+        order[to] = id;
+        invalidateRowsFrom(Math.min(from, to));
+    }
+
+    // Remove uma linha só (não do histórico); devolve [linha, ID] para restoreRows()
+    public int[] takeRow(int row) {
+        int id = order[row];
+        System.arraycopy(order, row + 1, order, row, rowCount - row - 1);
+        rowCount--;
+        invalidateRowsFrom(row);
+        listed.clear(id);
+        if (completion.contains(id)) {
+            completedRows--;
+        }
+        return new int[]{row, id};
+    }
+
+    // Remove da lista (não do histórico) as tarefas que atendem ao filtro, numa
+    // única passada. Devolve o que saiu, para desfazer com restoreRows(): pares
+    // [linha, ID] intercalados, em ordem de linha
+    public int[] takeRowsIf(IntPredicate filter) {
+        int[] removed = new int[0];
+        int count = 0;
+        int kept = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int id = order[row];
+            if (!filter.test(id)) {
+                order[kept++] = id;
+            } else {
+                if (count == removed.length) {
+                    removed = Arrays.copyOf(removed, Math.max(8, count * 2));
+                }
+                if (count == 0) {
+                    invalidateRowsFrom(row);
+                }
+                removed[count++] = row;
+                removed[count++] = id;
+                listed.clear(id);
+                if (completion.contains(id)) {
+                    completedRows--;
+                }
+            }
+        }
+        rowCount = kept;
+        return Arrays.copyOf(removed, count);
+    }
+
+    // Remove da lista todas as concluídas numa passada, consultando só os bits
+    public int[] takeCompletedRows() {
+        return takeRowsIf(completion::contains);
+    }
+
+    // Devolve às posições originais as linhas tiradas por takeRowsIf(), numa passada
+    public void restoreRows(int[] removed) {
+        int count = removed.length / 2;
+        if (count == 0) return;
+        invalidateRowsFrom(removed[0]);
+        int newCount = rowCount + count;
+        int[] merged = new int[Math.max(order.length, newCount)];
+        int next = 0; // Próximo par a devolver
+        int source = 0; // Próxima linha atual
+        for (int row = 0; row < newCount; row++) {
+            if (next < count && removed[next * 2] == row) {
+                int id = removed[next * 2 + 1];
+                merged[row] = id;
+                listed.set(id);
+                if (completion.contains(id)) {
+                    completedRows++;
+                }
+                next++;
+            } else {
+                merged[row] = order[source++];
+            }
+        }
+        order = merged;
+        rowCount = newCount;
+    }
+
+    public void clearRows() {
+        rowCount = 0;
+        indexedRows = 0;
+        listed.clear();
+        completedRows = 0;
+    }
+
+    // Exibe todas as tarefas do histórico, na ordem em que foram criadas
+    public void showAll() {
+        if (order.length < size) {
+            order = new int[size];
+        }
+        for (int id = 0; id < size; id++) {
+            order[id] = id;
+        }
+        rowCount = size;
+        invalidateRowsFrom(0); // Reindexado na primeira consulta
+        listed.set(0, size);
+        completedRows = completion.count();
+    }
+}
@@ -0,0 +1,394 @@
+package todoapp;
+
+import java.io.*;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeParseException;
+import java.util.*;
+
+// Importação/exportação de tarefas em CSV ou JSON Lines, sem carregar o arquivo
+// inteiro: a leitura monta lotes de BATCH_SIZE tarefas num TaskStore e entrega
+// um lote por vez; a escrita percorre o histórico linha a linha.
+//
+// Campos (cabeçalho do CSV / chaves do JSON): description, completed,
+// createdAt, completedAt, tags, priority. Só description é obrigatório; datas
+// podem vir em ISO-8601 ("2024-05-01T12:00:00Z" ou "2024-05-01") ou em milissegundos.
+public final class TaskTransfer {
+    public enum Format {
+        CSV, JSON_LINES;
+
+        public static Format forFile(File file) {
+            return file.getName().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : JSON_LINES;
+        }
+    }
+
+    // Recebe cada lote lido; o TaskStore é novo a cada chamada
+    public interface BatchHandler {
+        void handle(TaskStore batch) throws Exception;
+    }
+
+    public static final int BATCH_SIZE = 5000;
+
+    private static final String[] FIELDS = {"description", "completed", "createdAt", "completedAt", "tags", "priority"};
+    private static final int DEFAULT_PRIORITY = 2;
+
+    private TaskTransfer() {
+    }
+
+    // Importa direto no repositório, na thread de quem chama (sem Swing: CLI,
+    // benchmarks). Um flush por lote e um único snapshot no fim.
+    public static int importInto(TaskRepository repository, Reader in, Format format) throws Exception {
+        int count = read(in, format, batch -> {
+            repository.addBatch(batch);
+            repository.flush();
+        });
+        repository.compactIfNeeded();
+        return count;
+    }
+
+    // Lê as tarefas e as entrega em lotes; linhas inválidas são ignoradas (e
+    // avisadas no System.err). Devolve quantas tarefas foram lidas.
+    public static int read(Reader in, Format format, BatchHandler handler) throws Exception {
+        BufferedReader reader = in instanceof BufferedReader ? (BufferedReader) in : new BufferedReader(in);
+        TaskStore batch = new TaskStore();
+        int count = 0;
+        int line = 0;
+
+        List<String> header = format == Format.CSV ? readCsvRecord(reader) : null;
+        if (format == Format.CSV && header == null) return 0;
+
+        while (true) {
+            Map<String, Object> fields;
+            if (format == Format.CSV) {
+                List<String> record = readCsvRecord(reader);
+                if (record == null) break;
+                line++;
+                if (record.size() == 1 && record.get(0).isEmpty()) continue;
+                fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < record.size(); i++) {
+                    fields.put(header.get(i).trim(), record.get(i));
+                }
+            } else {
+                String text = reader.readLine();
+                if (text == null) break;
+                line++;
+                if (text.isBlank()) continue;
+                try {
+                    fields = parseJsonObject(text);
+                } catch (IllegalArgumentException e) {
+                    System.err.println("Linha " + line + " ignorada: " + e.getMessage());
+                    continue;
+                }
+            }
+
+            if (!addTo(batch, fields)) {
+                System.err.println("Linha " + line + " ignorada: tarefa sem descrição ou com campos inválidos");
+                continue;
+            }
+            count++;
+            if (batch.size() == BATCH_SIZE) {
+                handler.handle(batch);
+                batch = new TaskStore();
+            }
+        }
+        if (batch.size() > 0) {
+            handler.handle(batch);
+        }
+        return count;
+    }
+
+    // Grava as primeiras `size` tarefas do histórico. Devolve quantas foram gravadas.
+    public static int write(TaskHistory history, int size, Writer out, Format format) throws IOException {
+        BufferedWriter writer = out instanceof BufferedWriter ? (BufferedWriter) out : new BufferedWriter(out);
+        if (format == Format.CSV) {
+            writer.write(String.join(",", FIELDS));
+            writer.newLine();
+        }
+        for (int id = 0; id < size; id++) {
+            String completedAt = history.completedAt(id) != TaskStore.NO_DATE
+                    ? Instant.ofEpochMilli(history.completedAt(id)).toString() : null;
+            String created = Instant.ofEpochMilli(history.createdAt(id)).toString();
+            if (format == Format.CSV) {
+                writer.write(csvField(history.description(id)) + "," + history.isCompleted(id) + ","
+                        + created + "," + (completedAt != null ? completedAt : "") + ","
+                        + csvField(history.tags(id)) + "," + history.priority(id));
+            } else {
+                StringBuilder json = new StringBuilder("{\"description\":");
+                appendJsonString(json, history.description(id));
+                json.append(",\"completed\":").append(history.isCompleted(id));
+                json.append(",\"createdAt\":\"").append(created).append('"');
+                json.append(",\"completedAt\":").append(completedAt != null ? "\"" + completedAt + "\"" : "null");
+                json.append(",\"tags\":[");
+                List<String> tags = splitTags(history.tags(id));
+                for (int i = 0; i < tags.size(); i++) {
+                    if (i > 0) json.append(',');
+                    appendJsonString(json, tags.get(i));
+                }
+                json.append("],\"priority\":").append(history.priority(id)).append('}');
+                writer.write(json.toString());
+            }
+            writer.newLine();
+        }
+        writer.flush();
+        return size;
+    }
+
+    // Conversão dos campos (também usada pela API HTTP, TaskServer)
+
+    static boolean addTo(TaskStore batch, Map<String, Object> fields) {
+        Object description = fields.get("description");
+        if (description == null || description.toString().isBlank()) return false;
+
+        try {
+            long now = System.currentTimeMillis();
+            long created = parseDate(fields.get("createdAt"), now);
+            boolean completed = parseBoolean(fields.get("completed"));
+            long completedAt = completed ? parseDate(fields.get("completedAt"), created) : TaskStore.NO_DATE;
+            int priority = parsePriority(fields.get("priority"));
+            batch.add(TaskStore.clean(description.toString()), parseTags(fields.get("tags")), priority, created, completed, completedAt);
+            return true;
+        } catch (DateTimeParseException | NumberFormatException e) {
+            return false;
+        }
+    }
+
+    private static String parseTags(Object value) {
+        List<String> tags = new ArrayList<>();
+        if (value instanceof List<?> list) {
+            for (Object tag : list) {
+                if (tag != null) tags.add(tag.toString());
+            }
+        } else if (value != null) {
+            tags.addAll(Arrays.asList(value.toString().split(",")));
+        }
+        StringJoiner joined = new StringJoiner(",");
+        for (String tag : tags) {
+            String cleaned = TaskStore.clean(tag).replace(",", " ").trim();
+            if (!cleaned.isEmpty()) joined.add(cleaned);
+        }
+        return joined.toString();
+    }
+
+    private static List<String> splitTags(String tags) {
+        List<String> result = new ArrayList<>();
+        for (String tag : tags.split(",")) {
+            if (!tag.isEmpty()) result.add(tag);
+        }
+        return result;
+    }
+
+    private static boolean parseBoolean(Object value) {
+        if (value instanceof Boolean b) return b;
+        if (value == null) return false;
+        String text = value.toString().trim().toLowerCase(Locale.ROOT);
+        return text.equals("true") || text.equals("1") || text.equals("sim") || text.equals("yes");
+    }
+
+    private static int parsePriority(Object value) {
+        if (value == null || value.toString().isBlank()) return DEFAULT_PRIORITY;
+        int priority = (int) Double.parseDouble(value.toString().trim());
+        return priority >= 1 && priority <= 3 ? priority : DEFAULT_PRIORITY;
+    }
+
+    private static long parseDate(Object value, long fallback) {
+        if (value == null) return fallback;
+        if (value instanceof Number number) return number.longValue();
+        String text = value.toString().trim();
+        if (text.isEmpty() || text.equals("null")) return fallback;
+        if (text.chars().allMatch(Character::isDigit)) return Long.parseLong(text);
+        if (text.length() == 10) {
+            return LocalDate.parse(text).atStartOfDay(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return Instant.parse(text).toEpochMilli();
+    }
+
+    // CSV (RFC 4180): campos com vírgula, aspas ou quebra de linha vêm entre aspas
+
+    private static List<String> readCsvRecord(BufferedReader in) throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    in.mark(1);
+                    if (in.read() == '"') {
+                        field.append('"'); // Aspas duplicadas dentro do campo
+                    } else {
+                        in.reset();
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!any) return null;
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private static String csvField(String value) {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+
+    // JSON: só o necessário para um objeto simples por linha
+
+    // Lança IllegalArgumentException se o texto não for um objeto válido
+    static Map<String, Object> parseJsonObject(String text) {
+        return new JsonParser(text).parseObject();
+    }
+
+    static void appendJsonString(StringBuilder out, String value) {
+        out.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+    private static final class JsonParser {
+        private final String text;
+        private int pos;
+
+        JsonParser(String text) {
+            this.text = text;
+        }
+
+        Map<String, Object> parseObject() {
+            Map<String, Object> object = new HashMap<>();
+            expect('{');
+            if (peek() == '}') {
+                pos++;
+                return object;
+            }
+            do {
+                skipSpaces();
+                String key = parseString();
+                expect(':');
+                object.put(key, parseValue());
+            } while (consume(','));
+            expect('}');
+            return object;
+        }
+
+        private Object parseValue() {
+            char c = peek();
+            if (c == '"') return parseString();
+            if (c == '{') return parseObject();
+            if (c == '[') {
+                List<Object> list = new ArrayList<>();
+                pos++;
+                if (peek() == ']') {
+                    pos++;
+                    return list;
+                }
+                do {
+                    list.add(parseValue());
+                } while (consume(','));
+                expect(']');
+                return list;
+            }
+            if (text.startsWith("true", pos)) {
+                pos += 4;
+                return Boolean.TRUE;
+            }
+            if (text.startsWith("false", pos)) {
+                pos += 5;
+                return Boolean.FALSE;
+            }
+            if (text.startsWith("null", pos)) {
+                pos += 4;
+                return null;
+            }
+            int start = pos;
+            while (pos < text.length() && "+-0123456789.eE".indexOf(text.charAt(pos)) >= 0) pos++;
+            if (start == pos) throw new IllegalArgumentException("valor inválido na posição " + pos);
+            String number = text.substring(start, pos);
+            boolean integral = number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0;
+            return integral ? (Object) Long.parseLong(number) : (Object) Double.parseDouble(number);
+        }
+
+        private String parseString() {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (pos < text.length()) {
+                char c = text.charAt(pos++);
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append(c);
+                    continue;
+                }
+                if (pos >= text.length()) break;
+                char escaped = text.charAt(pos++);
+                switch (escaped) {
+                    case 'n' -> sb.append('\n');
+                    case 'r' -> sb.append('\r');
+                    case 't' -> sb.append('\t');
+                    case 'b' -> sb.append('\b');
+                    case 'f' -> sb.append('\f');
+                    case 'u' -> {
+                        if (pos + 4 > text.length()) throw new IllegalArgumentException("escape \\u incompleto");
+                        sb.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                        pos += 4;
+                    }
+                    default -> sb.append(escaped); // \" \\ \/
+                }
+            }
+            throw new IllegalArgumentException("texto sem aspas de fechamento");
+        }
+
+        private char peek() {
+            skipSpaces();
+            if (pos >= text.length()) throw new IllegalArgumentException("JSON incompleto");
+            return text.charAt(pos);
+        }
+
+        private boolean consume(char c) {
+            if (pos < text.length() && peek() == c) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+
+        private void expect(char c) {
+            if (peek() != c) throw new IllegalArgumentException("esperado '" + c + "' na posição " + pos);
+            pos++;
+        }
+
+        private void skipSpaces() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+        }
+    }
+}
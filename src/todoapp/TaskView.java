@@ -0,0 +1,230 @@
+package todoapp;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+
+// Retrato imutável das tarefas do dia e da ordem da lista, lido sem trava por
+// qualquer thread (renderer, barra de progresso, API, exportação). O
+// TaskRepository publica um novo a cada alteração, antes de avisar os listeners.
+//
+// Os dados ficam em blocos de 1024 posições. Publicar não copia a lista: só os
+// blocos alterados desde o último retrato são copiados (e o array de blocos),
+// então os retratos antigos continuam válidos e marcar uma tarefa custa O(n/1024).
+//
+// Como no TaskStore, os dados são lidos pela posição no dia (idAt); o ID
+// estável, que vale fora do retrato (API, TaskRepository.rowOf), é taskId.
+public final class TaskView implements TaskHistory {
+    private static final int SHIFT = 10;
+    private static final int BLOCK = 1 << SHIFT;
+    private static final int MASK = BLOCK - 1;
+
+    public static final TaskView EMPTY = new Writer().publish(new TaskStore(), 0);
+
+    private final int firstId; // Tarefas dos dias fechados
+    private final int size;
+    private final int rowCount;
+    private final int completedRows;
+    private final Object[] order; // int[]: linha -> ID
+    private final Object[] descriptions; // String[]
+    private final Object[] tags; // String[]
+    private final Object[] priorities; // byte[]
+    private final Object[] createdAt; // long[]
+    private final Object[] completedAt; // long[]
+    private final Object[] completed; // long[] com um bit por tarefa
+
+    private TaskView(Writer writer, TaskStore store, int firstId) {
+        this.firstId = firstId;
+        size = store.size();
+        rowCount = store.rowCount();
+        completedRows = store.completedRowCount();
+        order = writer.order.spine;
+        descriptions = writer.descriptions.spine;
+        tags = writer.tags.spine;
+        priorities = writer.priorities.spine;
+        createdAt = writer.createdAt.spine;
+        completedAt = writer.completedAt.spine;
+        completed = writer.completed.spine;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public String description(int id) {
+        return ((String[]) descriptions[block(id, size)])[id & MASK];
+    }
+
+    @Override
+    public String tags(int id) {
+        return ((String[]) tags[block(id, size)])[id & MASK];
+    }
+
+    @Override
+    public int priority(int id) {
+        return ((byte[]) priorities[block(id, size)])[id & MASK];
+    }
+
+    @Override
+    public long createdAt(int id) {
+        return ((long[]) createdAt[block(id, size)])[id & MASK];
+    }
+
+    @Override
+    public long completedAt(int id) {
+        return ((long[]) completedAt[block(id, size)])[id & MASK];
+    }
+
+    @Override
+    public boolean isCompleted(int id) {
+        return (((long[]) completed[block(id, size)])[(id & MASK) >>> 6] & (1L << id)) != 0;
+    }
+
+    // Mesmo formato de TaskStore.displayString()
+    public String displayString(int id) {
+        return description(id) + " [Prioridade: " + priority(id) + ", Tags: " + tags(id).replace(",", ", ") + "]";
+    }
+
+    public int rowCount() {
+        return rowCount;
+    }
+
+    public int completedRowCount() {
+        return completedRows;
+    }
+
+    public int idAt(int row) {
+        return ((int[]) order[block(row, rowCount)])[row & MASK];
+    }
+
+    // ID estável da tarefa na linha: a posição dela em TaskRepository.fullHistory()
+    public int taskId(int row) {
+        return firstId + idAt(row);
+    }
+
+    // As posições além do tamanho deste retrato podem já ter dados mais novos
+    private static int block(int index, int length) {
+        if (index < 0 || index >= length) {
+            throw new IndexOutOfBoundsException("Posição " + index + " fora do retrato (" + length + ")");
+        }
+        return index >>> SHIFT;
+    }
+
+    // Lado de quem escreve (sempre com a trava do repositório): espelha no
+    // retrato as partes do TaskStore que mudaram e publica
+    public static final class Writer {
+        private Blocks order = new Blocks(n -> new int[n], b -> ((int[]) b).clone());
+        private Blocks descriptions = new Blocks(n -> new String[n], b -> ((String[]) b).clone());
+        private Blocks tags = new Blocks(n -> new String[n], b -> ((String[]) b).clone());
+        private Blocks priorities = new Blocks(n -> new byte[n], b -> ((byte[]) b).clone());
+        private Blocks createdAt = new Blocks(n -> new long[n], b -> ((long[]) b).clone());
+        private Blocks completedAt = new Blocks(n -> new long[n], b -> ((long[]) b).clone());
+        private Blocks completed = new Blocks(n -> new long[n >>> 6], b -> ((long[]) b).clone());
+
+        // Dados da tarefa (nova ou alterada)
+        public void task(TaskStore store, int id) {
+            ((String[]) descriptions.writable(id))[id & MASK] = store.description(id);
+            ((String[]) tags.writable(id))[id & MASK] = store.tags(id);
+            ((byte[]) priorities.writable(id))[id & MASK] = (byte) store.priority(id);
+            ((long[]) createdAt.writable(id))[id & MASK] = store.createdAt(id);
+            ((long[]) completedAt.writable(id))[id & MASK] = store.completedAt(id);
+            long[] bits = (long[]) completed.writable(id);
+            if (store.isCompleted(id)) {
+                bits[(id & MASK) >>> 6] |= 1L << id;
+            } else {
+                bits[(id & MASK) >>> 6] &= ~(1L << id);
+            }
+        }
+
+        // Linhas [from, to) da lista
+        public void rows(TaskStore store, int from, int to) {
+            for (int row = from; row < to; row++) {
+                ((int[]) order.writable(row))[row & MASK] = store.idAt(row);
+            }
+        }
+
+        // Tudo de novo (carga, "Finalizar dia", troca do store)
+        public void reset(TaskStore store) {
+            order = order.empty();
+            descriptions = descriptions.empty();
+            tags = tags.empty();
+            priorities = priorities.empty();
+            createdAt = createdAt.empty();
+            completedAt = completedAt.empty();
+            completed = completed.empty();
+            for (int id = 0; id < store.size(); id++) {
+                task(store, id);
+            }
+            rows(store, 0, store.rowCount());
+        }
+
+        public TaskView publish(TaskStore store, int firstId) {
+            order.publish(store.rowCount());
+            descriptions.publish(store.size());
+            tags.publish(store.size());
+            priorities.publish(store.size());
+            createdAt.publish(store.size());
+            completedAt.publish(store.size());
+            completed.publish(store.size());
+            return new TaskView(this, store, firstId);
+        }
+    }
+
+    // Array em blocos com cópia na escrita. Posições abaixo de `visible` (o
+    // maior tamanho já publicado) podem estar sendo lidas: o bloco e o array de
+    // blocos são copiados antes da primeira escrita depois de cada publicação.
+    // Acima disso a escrita é direta, porque nenhum retrato chega lá.
+    private static final class Blocks {
+        private final IntFunction<Object> create;
+        private final UnaryOperator<Object> copy;
+        private Object[] spine = new Object[4];
+        private final BitSet fresh = new BitSet(); // Blocos criados ou copiados depois da última publicação
+        private boolean spineFresh = true;
+        private int visible;
+
+        Blocks(IntFunction<Object> create, UnaryOperator<Object> copy) {
+            this.create = create;
+            this.copy = copy;
+        }
+
+        Blocks empty() {
+            return new Blocks(create, copy);
+        }
+
+        Object writable(int index) {
+            int b = index >>> SHIFT;
+            if (b >= spine.length) {
+                spine = Arrays.copyOf(spine, Math.max(b + 1, spine.length * 2));
+                spineFresh = true;
+            }
+            Object block = spine[b];
+            if (block == null) {
+                block = create.apply(BLOCK);
+                setBlock(b, block);
+            } else if (index < visible && !fresh.get(b)) {
+                block = copy.apply(block);
+                setBlock(b, block);
+            }
+            return block;
+        }
+
+        private void setBlock(int b, Object block) {
+            // Trocar um bloco já publicado exige um array de blocos novo
+            if (!spineFresh && ((long) b << SHIFT) < visible) {
+                spine = spine.clone();
+                spineFresh = true;
+            }
+            spine[b] = block;
+            fresh.set(b);
+        }
+
+        void publish(int length) {
+            visible = Math.max(visible, length);
+            fresh.clear();
+            spineFresh = false;
+        }
+    }
+}
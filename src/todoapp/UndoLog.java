@@ -0,0 +1,77 @@
+package todoapp;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+// Pilhas de desfazer/refazer. Cada entrada guarda só a diferença da operação
+// (ex.: os IDs e as posições das linhas removidas), nunca uma cópia da lista.
+// A memória é limitada pelo número de entradas e pelo peso somado delas; as
+// mais antigas são descartadas primeiro.
+public class UndoLog {
+    public interface Op {
+        void undo();
+
+        void redo();
+
+        // Tamanho aproximado em ints, para o limite de memória
+        int weight();
+    }
+
+    private final int maxOps;
+    private final long maxWeight;
+    private final Deque<Op> undo = new ArrayDeque<>();
+    private final Deque<Op> redo = new ArrayDeque<>();
+    private long weight; // Peso das duas pilhas juntas
+
+    public UndoLog(int maxOps, long maxWeight) {
+        this.maxOps = maxOps;
+        this.maxWeight = maxWeight;
+    }
+
+    // Uma operação nova invalida o que havia para refazer
+    public void record(Op op) {
+        clearRedo();
+        undo.push(op);
+        weight += op.weight();
+        while (undo.size() > 1 && (undo.size() > maxOps || weight > maxWeight)) {
+            weight -= undo.removeLast().weight();
+        }
+    }
+
+    public boolean canUndo() {
+        return !undo.isEmpty();
+    }
+
+    public boolean canRedo() {
+        return !redo.isEmpty();
+    }
+
+    public boolean undo() {
+        if (undo.isEmpty()) return false;
+        Op op = undo.pop();
+        op.undo();
+        redo.push(op);
+        return true;
+    }
+
+    public boolean redo() {
+        if (redo.isEmpty()) return false;
+        Op op = redo.pop();
+        op.redo();
+        undo.push(op);
+        return true;
+    }
+
+    public void clearRedo() {
+        for (Op op : redo) {
+            weight -= op.weight();
+        }
+        redo.clear();
+    }
+
+    public void clear() {
+        undo.clear();
+        redo.clear();
+        weight = 0;
+    }
+}
@@ -0,0 +1,63 @@
+package todoapp;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.function.Consumer;
+
+// Seletor de listas acima do filtro: trocar no combo abre a lista escolhida
+// e "Nova lista" cria outra (uma pasta em workspaces/)
+public class WorkspaceBar extends JPanel {
+    private final Workspaces workspaces;
+    private final Consumer<String> onSwitch;
+    private final JComboBox<String> workspaceBox = new JComboBox<>();
+    private boolean updating; // Evita tratar como troca as mudanças feitas por refresh()
+
+    public WorkspaceBar(Workspaces workspaces, Consumer<String> onSwitch) {
+        this.workspaces = workspaces;
+        this.onSwitch = onSwitch;
+        setLayout(new FlowLayout(FlowLayout.LEFT, 8, 4));
+        setBackground(new Color(128, 52, 7));
+
+        JLabel label = new JLabel("Lista:");
+        label.setForeground(Color.WHITE);
+        workspaceBox.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 14));
+        workspaceBox.addActionListener(e -> {
+            String name = (String) workspaceBox.getSelectedItem();
+            if (!updating && name != null && !name.equals(workspaces.activeName())) {
+                onSwitch.accept(name);
+            }
+        });
+
+        JButton newButton = new JButton("Nova lista");
+        newButton.setFocusPainted(false);
+        newButton.addActionListener(e -> createWorkspace());
+
+        add(label);
+        add(workspaceBox);
+        add(newButton);
+        refresh();
+    }
+
+    // Recarrega os nomes e seleciona a lista ativa
+    public void refresh() {
+        updating = true;
+        workspaceBox.removeAllItems();
+        for (String name : workspaces.names()) {
+            workspaceBox.addItem(name);
+        }
+        workspaceBox.setSelectedItem(workspaces.activeName());
+        updating = false;
+    }
+
+    private void createWorkspace() {
+        String name = JOptionPane.showInputDialog(this, "Nome da nova lista:");
+        if (name == null) return;
+        name = name.trim();
+        if (!Workspaces.isValidName(name)) {
+            JOptionPane.showMessageDialog(this, "Use só letras, números, espaços, '-' e '_' (até 40).",
+                    "Nome inválido", JOptionPane.ERROR_MESSAGE);
+            return;
+        }
+        onSwitch.accept(name); // Abrir uma lista que não existe cria a pasta
+    }
+}
@@ -0,0 +1,139 @@
+package todoapp;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Listas separadas (ex.: uma por projeto), cada uma com os próprios arquivos.
+// A "Principal" usa a pasta de dados, como antes; as outras ficam em
+// workspaces/<nome>/. Uma lista só é lida do disco quando é aberta, e só as
+// usadas por último ficam em memória: ao trocar, as inativas mais antigas são
+// fechadas (gravando o que falta) até a estimativa caber no orçamento
+// (-Dtodoapp.workspaces.budgetMb, 256 MB por padrão). Voltar para uma lista
+// que ainda está em memória é imediato.
+public class Workspaces {
+    public static final String DEFAULT = "Principal";
+    private static final String DIR_WORKSPACES = "workspaces";
+    private static final int MAX_NAME_LENGTH = 40;
+    // Medido com históricos sintéticos: ~230 bytes por tarefa carregada
+    // (store, retrato publicado, índices de busca e tags)
+    private static final long BYTES_PER_TASK = 256;
+    private static final long DEFAULT_BUDGET_BYTES = Long.getLong("todoapp.workspaces.budgetMb", 256L) << 20;
+
+    private final File root;
+    private final long budgetBytes;
+    // Listas em memória, da usada há mais tempo para a mais recente
+    private final Map<String, TaskRepository> open = new LinkedHashMap<>(16, 0.75f, true);
+    private String active;
+
+    public Workspaces(File root) {
+        this(root, DEFAULT_BUDGET_BYTES);
+    }
+
+    public Workspaces(File root, long budgetBytes) {
+        this.root = root;
+        this.budgetBytes = budgetBytes;
+    }
+
+    // A principal primeiro, depois as outras em ordem alfabética
+    public List<String> names() {
+        List<String> names = new ArrayList<>();
+        File[] dirs = new File(root, DIR_WORKSPACES).listFiles(File::isDirectory);
+        if (dirs != null) {
+            for (File dir : dirs) {
+                if (isValidName(dir.getName())) {
+                    names.add(dir.getName());
+                }
+            }
+        }
+        names.sort(String.CASE_INSENSITIVE_ORDER);
+        names.add(0, DEFAULT);
+        return names;
+    }
+
+    // O nome vira uma pasta: nada de separadores, "." ou ".."
+    public static boolean isValidName(String name) {
+        return name != null && !name.isBlank() && name.length() <= MAX_NAME_LENGTH
+                && name.equals(name.trim()) && name.matches("[\\p{L}\\p{N} _-]+");
+    }
+
+    public File directory(String name) {
+        return name.equals(DEFAULT) ? root : new File(new File(root, DIR_WORKSPACES), name);
+    }
+
+    // Torna a lista ativa (criando a pasta se for nova). O repositório devolvido
+    // pode ainda não estar carregado: quem exibe decide como carregar (ex.:
+    // TaskList.loadInBackground) e chama evictIfNeeded() quando terminar.
+    public synchronized TaskRepository activate(String name) {
+        if (!isValidName(name)) {
+            throw new IllegalArgumentException("Nome de lista inválido: " + name);
+        }
+        TaskRepository repository = open.get(name);
+        if (repository == null) {
+            File dir = directory(name);
+            if (!dir.isDirectory() && !dir.mkdirs()) {
+                throw new IllegalStateException("Não foi possível criar a pasta da lista: " + dir);
+            }
+            repository = new TaskRepository(dir);
+            open.put(name, repository);
+        }
+        active = name;
+        evictIfNeeded();
+        return repository;
+    }
+
+    public synchronized TaskRepository active() {
+        return open.get(active);
+    }
+
+    public synchronized String activeName() {
+        return active;
+    }
+
+    // Listas inativas ainda em memória, da usada há mais tempo para a mais recente
+    public synchronized List<String> openNames() {
+        List<String> names = new ArrayList<>(open.keySet());
+        names.remove(active);
+        return names;
+    }
+
+    // Fecha as listas inativas usadas há mais tempo até caber no orçamento. Só
+    // as carregadas e paradas: uma carga ou importação ainda rodando gravaria
+    // depois do fechamento e perderia o trabalho; ficam para a próxima troca.
+    public synchronized void evictIfNeeded() {
+        long total = estimatedBytes();
+        Iterator<Map.Entry<String, TaskRepository>> it = open.entrySet().iterator();
+        while (total > budgetBytes && it.hasNext()) {
+            Map.Entry<String, TaskRepository> entry = it.next();
+            TaskRepository repository = entry.getValue();
+            if (entry.getKey().equals(active) || !repository.isLoaded()) continue;
+            long bytes = estimatedBytes(repository);
+            if (!repository.closeIfIdle()) continue; // Grava o que estiver pendente antes de soltar
+            total -= bytes;
+            it.remove();
+        }
+    }
+
+    public synchronized long estimatedBytes() {
+        long total = 0;
+        for (TaskRepository repository : open.values()) {
+            total += estimatedBytes(repository);
+        }
+        return total;
+    }
+
+    private static long estimatedBytes(TaskRepository repository) {
+        return repository.view().size() * BYTES_PER_TASK;
+    }
+
+    // Grava e fecha todas as listas abertas (chamado ao sair)
+    public synchronized void shutdown() {
+        for (TaskRepository repository : open.values()) {
+            repository.shutdown();
+        }
+        open.clear();
+    }
+}